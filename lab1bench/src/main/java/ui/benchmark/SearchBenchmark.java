@@ -0,0 +1,88 @@
+package ui.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ui.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class SearchBenchmark {
+    @Param({"grid", "random", "puzzle"})
+    public String shape;
+
+    @Param({"10000", "100000"})
+    public int stateCount;
+
+    @Param({"4", "8"})
+    public int branchingFactor;
+
+    @Param("42")
+    public long seed;
+
+    private StateSpace stateSpace;
+    private Heuristic heuristic;
+    private PrintStream standardOutput;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SyntheticStateSpaces generated = SyntheticStateSpaces.generate(shape, stateCount, branchingFactor, seed);
+        stateSpace = StateSpace.read(generated.stateSpace.stream());
+        heuristic = Heuristic.read(generated.heuristic.stream());
+
+        standardOutput = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(standardOutput);
+    }
+
+    @Benchmark
+    public SearchAlgorithm.SearchResult breadthFirstSearch() {
+        return SearchAlgorithms.BREADTH_FIRST_SEARCH.search(stateSpace, heuristic);
+    }
+
+    @Benchmark
+    public SearchAlgorithm.SearchResult uniformCostSearch() {
+        return SearchAlgorithms.UNIFORM_COST_SEARCH.search(stateSpace, heuristic);
+    }
+
+    @Benchmark
+    public SearchAlgorithm.SearchResult aStarSearch() {
+        return SearchAlgorithms.A_STAR_SEARCH.search(stateSpace, heuristic);
+    }
+
+    @Benchmark
+    public SearchAlgorithm.SearchResult compactBreadthFirstSearch() {
+        return SearchAlgorithms.COMPACT_BREADTH_FIRST_SEARCH.search(stateSpace, heuristic);
+    }
+
+    @Benchmark
+    public SearchAlgorithm.SearchResult compactUniformCostSearch() {
+        return SearchAlgorithms.COMPACT_UNIFORM_COST_SEARCH.search(stateSpace, heuristic);
+    }
+
+    @Benchmark
+    public SearchAlgorithm.SearchResult compactAStarSearch() {
+        return SearchAlgorithms.COMPACT_A_STAR_SEARCH.search(stateSpace, heuristic);
+    }
+
+    @Benchmark
+    public void isOptimistic() {
+        Checks.isOptimistic(stateSpace, heuristic);
+    }
+
+    @Benchmark
+    public void isConsistent() {
+        Checks.isConsistent(stateSpace, heuristic);
+    }
+}
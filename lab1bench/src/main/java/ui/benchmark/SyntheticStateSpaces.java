@@ -0,0 +1,252 @@
+package ui.benchmark;
+
+import java.util.*;
+
+public final class SyntheticStateSpaces {
+    private static final int MAX_COST = 9;
+
+    public final List<String> stateSpace;
+    public final List<String> heuristic;
+
+    private SyntheticStateSpaces(List<String> stateSpace, List<String> heuristic) {
+        this.stateSpace = stateSpace;
+        this.heuristic = heuristic;
+    }
+
+    public static SyntheticStateSpaces generate(String shape, int stateCount, int branchingFactor, long seed) {
+        switch (shape) {
+            case "grid":
+                return grid((int) Math.ceil(Math.sqrt(stateCount)), branchingFactor, seed);
+            case "random":
+                return randomSparse(stateCount, branchingFactor, seed);
+            case "puzzle":
+                return slidingPuzzle(puzzleSide(branchingFactor), puzzleSide(branchingFactor), stateCount);
+            default:
+                throw new IllegalArgumentException("Unknown state space shape " + shape);
+        }
+    }
+
+    private static int puzzleSide(int branchingFactor) {
+        if (branchingFactor != 4 && branchingFactor != 8)
+            throw new IllegalArgumentException("A puzzle must have a branching factor of 4 or 8");
+
+        return branchingFactor == 4 ? 3 : 4;
+    }
+
+    public static SyntheticStateSpaces grid(int side, int branchingFactor, long seed) {
+        if (branchingFactor != 4 && branchingFactor != 8)
+            throw new IllegalArgumentException("A grid must have a branching factor of 4 or 8");
+
+        Random random = new Random(seed);
+        List<String> stateSpace = new ArrayList<>();
+        List<String> heuristic = new ArrayList<>();
+
+        stateSpace.add(gridCell(0, 0));
+        stateSpace.add(gridCell(side - 1, side - 1));
+
+        StringBuilder line = new StringBuilder();
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                line.setLength(0);
+                line.append(gridCell(x, y)).append(':');
+
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        if ((dx == 0 && dy == 0) || (branchingFactor == 4 && dx != 0 && dy != 0))
+                            continue;
+                        if (x + dx < 0 || x + dx >= side || y + dy < 0 || y + dy >= side)
+                            continue;
+
+                        line.append(' ').append(gridCell(x + dx, y + dy)).append(',').append(randomCost(random));
+                    }
+                }
+
+                stateSpace.add(line.toString());
+
+                int dx = side - 1 - x;
+                int dy = side - 1 - y;
+                int distance = branchingFactor == 4 ? dx + dy : Math.max(dx, dy);
+                heuristic.add(gridCell(x, y) + ": " + distance);
+            }
+        }
+
+        return new SyntheticStateSpaces(stateSpace, heuristic);
+    }
+
+    public static SyntheticStateSpaces randomSparse(int stateCount, int branchingFactor, long seed) {
+        if (stateCount < 2)
+            throw new IllegalArgumentException("A random state space needs at least two states");
+
+        Random random = new Random(seed);
+        List<String> stateSpace = new ArrayList<>();
+        List<String> heuristic = new ArrayList<>();
+        List<List<int[]>> predecessors = new ArrayList<>();
+        for (int state = 0; state < stateCount; state++)
+            predecessors.add(new ArrayList<>());
+
+        stateSpace.add(randomState(0));
+        stateSpace.add(randomState(stateCount - 1));
+
+        StringBuilder line = new StringBuilder();
+        for (int state = 0; state < stateCount; state++) {
+            line.setLength(0);
+            line.append(randomState(state)).append(':');
+
+            if (state + 1 < stateCount) {
+                line.append(' ').append(randomState(state + 1)).append(',').append(MAX_COST + 1);
+                predecessors.get(state + 1).add(new int[]{state, MAX_COST + 1});
+            }
+
+            Set<Integer> successors = new TreeSet<>();
+            for (int i = 1; i < branchingFactor; i++)
+                successors.add(random.nextInt(stateCount));
+            successors.remove(state);
+            successors.remove(state + 1);
+
+            for (int successor : successors) {
+                int cost = randomCost(random);
+                line.append(' ').append(randomState(successor)).append(',').append(cost);
+                predecessors.get(successor).add(new int[]{state, cost});
+            }
+
+            stateSpace.add(line.toString());
+        }
+
+        long[] distances = distancesToGoal(predecessors, stateCount - 1);
+        for (int state = 0; state < stateCount; state++)
+            heuristic.add(randomState(state) + ": " + distances[state] / 2);
+
+        return new SyntheticStateSpaces(stateSpace, heuristic);
+    }
+
+    private static long[] distancesToGoal(List<List<int[]>> predecessors, int goal) {
+        long[] distances = new long[predecessors.size()];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        distances[goal] = 0;
+
+        PriorityQueue<long[]> open = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[0]));
+        open.add(new long[]{0, goal});
+        while (!open.isEmpty()) {
+            long[] entry = open.remove();
+            int state = (int) entry[1];
+            if (entry[0] > distances[state])
+                continue;
+
+            for (int[] predecessor : predecessors.get(state)) {
+                long distance = entry[0] + predecessor[1];
+                if (distance < distances[predecessor[0]]) {
+                    distances[predecessor[0]] = distance;
+                    open.add(new long[]{distance, predecessor[0]});
+                }
+            }
+        }
+
+        return distances;
+    }
+
+    public static SyntheticStateSpaces slidingPuzzle(int width, int height, int maxStates) {
+        if (width * height > Character.MAX_RADIX)
+            throw new IllegalArgumentException("The puzzle board is too big");
+
+        char[] solved = new char[width * height];
+        for (int i = 0; i < solved.length; i++)
+            solved[i] = Character.forDigit((i + 1) % solved.length, Character.MAX_RADIX);
+
+        Map<String, List<String>> successors = new LinkedHashMap<>();
+        Deque<String> open = new ArrayDeque<>();
+        String goal = new String(solved);
+        successors.put(goal, null);
+        open.add(goal);
+
+        String last = goal;
+        while (!open.isEmpty()) {
+            String board = open.remove();
+            last = board;
+
+            List<String> moves = slide(board, width, height);
+            successors.put(board, moves);
+
+            for (String move : moves) {
+                if (!successors.containsKey(move) && successors.size() < maxStates) {
+                    successors.put(move, null);
+                    open.add(move);
+                }
+            }
+        }
+
+        List<String> stateSpace = new ArrayList<>();
+        List<String> heuristic = new ArrayList<>();
+
+        stateSpace.add(last);
+        stateSpace.add(goal);
+
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<String, List<String>> entry : successors.entrySet()) {
+            line.setLength(0);
+            line.append(entry.getKey()).append(':');
+
+            for (String move : entry.getValue())
+                if (successors.containsKey(move))
+                    line.append(' ').append(move).append(",1");
+
+            stateSpace.add(line.toString());
+            heuristic.add(entry.getKey() + ": " + manhattanDistance(entry.getKey(), width));
+        }
+
+        return new SyntheticStateSpaces(stateSpace, heuristic);
+    }
+
+    private static List<String> slide(String board, int width, int height) {
+        List<String> moves = new ArrayList<>(4);
+        int blank = board.indexOf('0');
+        int x = blank % width;
+        int y = blank / width;
+
+        if (x > 0)
+            moves.add(swap(board, blank, blank - 1));
+        if (x < width - 1)
+            moves.add(swap(board, blank, blank + 1));
+        if (y > 0)
+            moves.add(swap(board, blank, blank - width));
+        if (y < height - 1)
+            moves.add(swap(board, blank, blank + width));
+
+        return moves;
+    }
+
+    private static String swap(String board, int i, int j) {
+        char[] tiles = board.toCharArray();
+        char tile = tiles[i];
+        tiles[i] = tiles[j];
+        tiles[j] = tile;
+        return new String(tiles);
+    }
+
+    private static int manhattanDistance(String board, int width) {
+        int tileCount = board.length();
+        int distance = 0;
+
+        for (int i = 0; i < tileCount; i++) {
+            int tile = Character.digit(board.charAt(i), Character.MAX_RADIX);
+            if (tile == 0)
+                continue;
+
+            int target = tile - 1;
+            distance += Math.abs(i % width - target % width) + Math.abs(i / width - target / width);
+        }
+
+        return distance;
+    }
+
+    private static String gridCell(int x, int y) {
+        return "x" + x + "_y" + y;
+    }
+
+    private static String randomState(int state) {
+        return "s" + state;
+    }
+
+    private static int randomCost(Random random) {
+        return 1 + random.nextInt(MAX_COST);
+    }
+}
@@ -0,0 +1,235 @@
+package ui;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+public class AnytimeRepairingAStar implements SearchAlgorithm {
+    private static final double WEIGHT_STEP = 0.5;
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final double initialWeight;
+    private final double targetWeight;
+    private final long timeLimitNanos;
+    private final ImprovementListener listener;
+
+    public AnytimeRepairingAStar(double initialWeight, double targetWeight, long timeLimitNanos,
+                                 ImprovementListener listener) {
+        if (targetWeight < 1)
+            throw new IllegalArgumentException("The target weight must be at least 1");
+        if (initialWeight < targetWeight)
+            throw new IllegalArgumentException("The initial weight must not be below the target weight");
+        if (timeLimitNanos <= 0)
+            throw new IllegalArgumentException("The time limit must be positive");
+
+        this.initialWeight = initialWeight;
+        this.targetWeight = targetWeight;
+        this.timeLimitNanos = timeLimitNanos;
+        this.listener = listener;
+    }
+
+    @Override
+    public SearchResult search(SearchProblem stateSpace, Heuristic heuristic, SearchMetrics metrics) {
+        return new Run(stateSpace, heuristic, metrics).search();
+    }
+
+    @FunctionalInterface
+    public interface ImprovementListener {
+        void onImprovement(SearchResult result, double suboptimalityBound, long elapsedNanos);
+    }
+
+    private final class Run {
+        private final SearchProblem stateSpace;
+        private final Heuristic heuristic;
+        private final SearchMetrics metrics;
+        private final long startNanos = System.nanoTime();
+
+        private final NodeStore nodes = new NodeStore();
+        private double[] estimatedCosts = new double[16];
+        private double[] parentCosts = new double[16];
+        private int[] closedIterations = new int[16];
+        private boolean[] expanded = new boolean[16];
+        private boolean[] inconsistent = new boolean[16];
+        private int[] inconsistentStates = new int[16];
+        private int inconsistentCount = 0;
+
+        private final NodeStoreHeap open = new NodeStoreHeap(nodes);
+        private double weight = initialWeight;
+        private int iteration = 1;
+        private int goal = -1;
+        private int visitedCount = 0;
+        private int expansionCount = 0;
+
+        private Run(SearchProblem stateSpace, Heuristic heuristic, SearchMetrics metrics) {
+            this.stateSpace = stateSpace;
+            this.heuristic = heuristic;
+            this.metrics = metrics;
+        }
+
+        private SearchResult search() {
+            int start = addState(stateSpace.getInitialState());
+            nodes.setParent(start, -1, 0);
+            if (stateSpace.isGoalState(nodes.getStateName(start)))
+                goal = start;
+
+            open.add(start, key(start));
+            metrics.heuristicLookupCount++;
+            metrics.observeOpenSize(open.size());
+
+            SearchResult best = null;
+            while (true) {
+                if (!improvePath(best != null))
+                    return best;
+                if (goal == -1)
+                    return null;
+
+                best = new SearchResult(path(goal), visitedCount, expansionCount - visitedCount, metrics);
+
+                double bound = suboptimalityBound();
+                if (listener != null)
+                    listener.onImprovement(best, bound, System.nanoTime() - startNanos);
+
+                if (bound <= targetWeight || isOutOfTime())
+                    return best;
+
+                weight = Math.max(targetWeight, Math.min(weight - WEIGHT_STEP, bound));
+                iteration++;
+                reopen();
+            }
+        }
+
+        private boolean improvePath(boolean interruptible) {
+            while (!open.isEmpty() && (goal == -1 || nodes.getCost(goal) > open.peekPriority())) {
+                if (interruptible && expansionCount % CLOCK_CHECK_INTERVAL == 0 && isOutOfTime())
+                    return false;
+
+                int n = open.remove();
+                closedIterations[n] = iteration;
+                if (!expanded[n]) {
+                    expanded[n] = true;
+                    visitedCount++;
+                }
+                expansionCount++;
+                metrics.expandedCount++;
+
+                for (SearchProblem.Successor s : stateSpace.getSuccessors(nodes.getStateName(n))) {
+                    metrics.generatedCount++;
+                    int m = nodes.findState(s.destination);
+                    if (m == -1)
+                        m = addState(s.destination);
+
+                    double cost = nodes.getCost(n) + s.cost;
+                    if (cost >= nodes.getCost(m)) {
+                        metrics.duplicateCount++;
+                        continue;
+                    }
+
+                    nodes.setParent(m, n, cost);
+                    parentCosts[m] = s.cost;
+                    if (stateSpace.isGoalState(s.destination) && (goal == -1 || cost < nodes.getCost(goal)))
+                        goal = m;
+
+                    if (closedIterations[m] == iteration) {
+                        if (!inconsistent[m]) {
+                            inconsistent[m] = true;
+                            if (inconsistentCount == inconsistentStates.length)
+                                inconsistentStates = Arrays.copyOf(inconsistentStates, inconsistentCount * 2);
+                            inconsistentStates[inconsistentCount++] = m;
+                        }
+                    } else if (open.get(m) != -1) {
+                        open.update(m, key(m));
+                    } else {
+                        open.add(m, key(m));
+                        metrics.heuristicLookupCount++;
+                    }
+                }
+
+                metrics.observeOpenSize(open.size() + inconsistentCount);
+                metrics.observeClosedSize(visitedCount);
+            }
+
+            return true;
+        }
+
+        private double suboptimalityBound() {
+            double lowerBound = Double.POSITIVE_INFINITY;
+            int[] openStates = drainOpen();
+            for (int state : openStates)
+                lowerBound = Math.min(lowerBound, nodes.getCost(state) + estimatedCosts[state]);
+            for (int i = 0; i < inconsistentCount; i++)
+                lowerBound = Math.min(lowerBound,
+                        nodes.getCost(inconsistentStates[i]) + estimatedCosts[inconsistentStates[i]]);
+            for (int state : openStates)
+                open.add(state, key(state));
+
+            if (lowerBound >= nodes.getCost(goal))
+                return 1;
+
+            return Math.min(weight, nodes.getCost(goal) / lowerBound);
+        }
+
+        private void reopen() {
+            int[] openStates = drainOpen();
+            for (int state : openStates)
+                open.add(state, key(state));
+
+            for (int i = 0; i < inconsistentCount; i++) {
+                int state = inconsistentStates[i];
+                inconsistent[state] = false;
+                if (open.get(state) == -1) {
+                    open.add(state, key(state));
+                    metrics.reopenedCount++;
+                }
+            }
+            inconsistentCount = 0;
+        }
+
+        private int[] drainOpen() {
+            int[] states = new int[open.size()];
+            for (int i = 0; i < states.length; i++)
+                states[i] = open.remove();
+
+            return states;
+        }
+
+        private int addState(String name) {
+            int state = nodes.add(nodes.addState(name), -1, Double.POSITIVE_INFINITY);
+            if (state == expanded.length) {
+                estimatedCosts = Arrays.copyOf(estimatedCosts, state * 2);
+                parentCosts = Arrays.copyOf(parentCosts, state * 2);
+                closedIterations = Arrays.copyOf(closedIterations, state * 2);
+                expanded = Arrays.copyOf(expanded, state * 2);
+                inconsistent = Arrays.copyOf(inconsistent, state * 2);
+            }
+
+            estimatedCosts[state] = heuristic.getEstimatedCost(name);
+            return state;
+        }
+
+        private Node path(int goal) {
+            long start = System.nanoTime();
+            Deque<Integer> path = new ArrayDeque<>();
+            for (int state = goal; state != -1; state = nodes.getParent(state))
+                path.push(state);
+
+            Node node = null;
+            for (int state : path) {
+                if (node == null)
+                    node = new Node(nodes.getStateName(state));
+                else
+                    node = new Node(nodes.getStateName(state), node, node.accumulatedCost + parentCosts[state]);
+            }
+            metrics.pathReconstructionNanos += System.nanoTime() - start;
+
+            return node;
+        }
+
+        private double key(int state) {
+            return nodes.getCost(state) + weight * estimatedCosts[state];
+        }
+
+        private boolean isOutOfTime() {
+            return System.nanoTime() - startNanos >= timeLimitNanos;
+        }
+    }
+}
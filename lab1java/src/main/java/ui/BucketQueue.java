@@ -0,0 +1,144 @@
+package ui;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class BucketQueue implements CompactOpenList {
+    private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private final long[] priorities;
+    private long current = 0;
+    private int size = 0;
+
+    public BucketQueue(int stateCount, int maxEdgeCost) {
+        if (maxEdgeCost < 0)
+            throw new IllegalArgumentException("The maximum edge cost must not be negative");
+
+        buckets = new int[maxEdgeCost + 1][];
+        bucketSizes = new int[maxEdgeCost + 1];
+        priorities = new long[stateCount];
+        Arrays.fill(priorities, -1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int state) {
+        return priorities[state] != -1;
+    }
+
+    @Override
+    public void add(int state, double priority) {
+        if (priorities[state] != -1)
+            throw new IllegalStateException("State " + state + " is already in the queue");
+
+        long key = key(priority);
+        if (size == 0 && (key < current || key - current >= buckets.length)) {
+            Arrays.fill(bucketSizes, 0);
+            current = key;
+        }
+
+        push(state, key);
+        size++;
+    }
+
+    @Override
+    public void update(int state, double priority) {
+        if (priorities[state] == -1)
+            throw new NoSuchElementException("State " + state + " is not in the queue");
+
+        long key = key(priority);
+        if (key > priorities[state])
+            throw new IllegalArgumentException("The priority of state " + state + " can only decrease");
+        if (key < priorities[state])
+            push(state, key);
+    }
+
+    @Override
+    public int remove() {
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        while (true) {
+            int bucket = (int) (current % buckets.length);
+            if (bucketSizes[bucket] == 0) {
+                current++;
+                continue;
+            }
+
+            int state = pop(bucket);
+            if (priorities[state] == current) {
+                priorities[state] = -1;
+                size--;
+                return state;
+            }
+        }
+    }
+
+    private long key(double priority) {
+        long key = (long) priority;
+        if (key != priority || key < 0)
+            throw new IllegalArgumentException("Priority " + priority + " is not a non-negative integer");
+
+        return key;
+    }
+
+    private void push(int state, long key) {
+        if (key < current || key - current >= buckets.length)
+            throw new IllegalArgumentException("Priority " + key + " is outside the monotone bucket range");
+
+        priorities[state] = key;
+
+        int bucket = (int) (key % buckets.length);
+        int[] heap = buckets[bucket];
+        if (heap == null)
+            heap = buckets[bucket] = new int[INITIAL_BUCKET_CAPACITY];
+        else if (bucketSizes[bucket] == heap.length)
+            heap = buckets[bucket] = Arrays.copyOf(heap, heap.length * 2);
+
+        int position = bucketSizes[bucket]++;
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (heap[parent] <= state)
+                break;
+
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = state;
+    }
+
+    private int pop(int bucket) {
+        int[] heap = buckets[bucket];
+        int first = heap[0];
+        int bucketSize = --bucketSizes[bucket];
+        int state = heap[bucketSize];
+
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= bucketSize)
+                break;
+            if (child + 1 < bucketSize && heap[child + 1] < heap[child])
+                child++;
+            if (heap[child] >= state)
+                break;
+
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = state;
+
+        return first;
+    }
+}
@@ -0,0 +1,148 @@
+package ui;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class CompactNodeHeap implements CompactOpenList {
+    private int[] states;
+    private final int[] positions;
+    private final double[] priorities;
+    private int size = 0;
+
+    public CompactNodeHeap(int stateCount) {
+        states = new int[stateCount];
+        positions = new int[stateCount];
+        priorities = new double[stateCount];
+        Arrays.fill(positions, -1);
+    }
+
+    CompactNodeHeap(int[] positions, double[] priorities) {
+        this.states = new int[16];
+        this.positions = positions;
+        this.priorities = priorities;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int state) {
+        return positions[state] != -1;
+    }
+
+    public int peek() {
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        return states[0];
+    }
+
+    public double peekPriority() {
+        return priorities[peek()];
+    }
+
+    @Override
+    public void add(int state, double priority) {
+        if (positions[state] != -1)
+            throw new IllegalStateException("State " + state + " is already in the heap");
+
+        if (size == states.length)
+            states = Arrays.copyOf(states, size * 2);
+
+        states[size] = state;
+        positions[state] = size;
+        priorities[state] = priority;
+        siftUp(size++);
+    }
+
+    @Override
+    public void update(int state, double priority) {
+        int position = positions[state];
+        if (position == -1)
+            throw new NoSuchElementException("State " + state + " is not in the heap");
+
+        double oldPriority = priorities[state];
+        priorities[state] = priority;
+
+        if (priority < oldPriority)
+            siftUp(position);
+        else if (priority > oldPriority)
+            siftDown(position);
+    }
+
+    @Override
+    public int remove() {
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        int first = states[0];
+        positions[first] = -1;
+
+        size--;
+        if (size > 0) {
+            states[0] = states[size];
+            positions[states[0]] = 0;
+            siftDown(0);
+        }
+
+        return first;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++)
+            positions[states[i]] = -1;
+        size = 0;
+    }
+
+    private boolean less(int state1, int state2) {
+        if (priorities[state1] == priorities[state2])
+            return state1 < state2;
+
+        return priorities[state1] < priorities[state2];
+    }
+
+    private void siftUp(int position) {
+        int state = states[position];
+
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!less(state, states[parent]))
+                break;
+
+            states[position] = states[parent];
+            positions[states[position]] = position;
+            position = parent;
+        }
+
+        states[position] = state;
+        positions[state] = position;
+    }
+
+    private void siftDown(int position) {
+        int state = states[position];
+
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && less(states[child + 1], states[child]))
+                child++;
+            if (!less(states[child], state))
+                break;
+
+            states[position] = states[child];
+            positions[states[position]] = position;
+            position = child;
+        }
+
+        states[position] = state;
+        positions[state] = position;
+    }
+}
@@ -0,0 +1,22 @@
+package ui;
+
+public interface CompactOpenList {
+    boolean isEmpty();
+
+    int size();
+
+    boolean contains(int state);
+
+    void add(int state, double priority);
+
+    void update(int state, double priority);
+
+    int remove();
+
+    static CompactOpenList forCosts(StateSpace.CompactGraph graph) {
+        if (graph.getIntegralCostBound() != -1)
+            return new BucketQueue(graph.getStateCount(), graph.getIntegralCostBound());
+
+        return new CompactNodeHeap(graph.getStateCount());
+    }
+}
@@ -0,0 +1,602 @@
+package ui;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class ContractionHierarchy implements SearchAlgorithm {
+    private static final int MAGIC = 0x55494348;
+    private static final int VERSION = 1;
+    private static final int WITNESS_SETTLED_LIMIT = 256;
+    private static final int SIMULATION_SETTLED_LIMIT = 32;
+
+    private final StateSpace.CompactGraph graph;
+
+    private final int[] forwardOffsets;
+    private final int[] forwardTargets;
+    private final double[] forwardCosts;
+    private final int[] forwardMiddles;
+
+    private final int[] backwardOffsets;
+    private final int[] backwardTargets;
+    private final double[] backwardCosts;
+    private final int[] backwardMiddles;
+
+    private ContractionHierarchy(StateSpace.CompactGraph graph,
+                                 int[] forwardOffsets, int[] forwardTargets, double[] forwardCosts,
+                                 int[] forwardMiddles, int[] backwardOffsets, int[] backwardTargets,
+                                 double[] backwardCosts, int[] backwardMiddles) {
+        this.graph = graph;
+        this.forwardOffsets = forwardOffsets;
+        this.forwardTargets = forwardTargets;
+        this.forwardCosts = forwardCosts;
+        this.forwardMiddles = forwardMiddles;
+        this.backwardOffsets = backwardOffsets;
+        this.backwardTargets = backwardTargets;
+        this.backwardCosts = backwardCosts;
+        this.backwardMiddles = backwardMiddles;
+    }
+
+    public static ContractionHierarchy build(StateSpace stateSpace) {
+        return new Builder(stateSpace.getCompactGraph()).build();
+    }
+
+    public static ContractionHierarchy read(Path path, StateSpace stateSpace) throws IOException {
+        StateSpace.CompactGraph graph = stateSpace.getCompactGraph();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedFileReader reader = new MappedFileReader(channel, "contraction hierarchy");
+            if (reader.readInt() != MAGIC)
+                throw new IOException("Not a contraction hierarchy: " + path);
+            int version = reader.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported contraction hierarchy version " + version);
+
+            int stateCount = reader.readInt();
+            int successorCount = reader.readInt();
+            int forwardCount = reader.readInt();
+            int backwardCount = reader.readInt();
+            if (stateCount != graph.getStateCount() || successorCount != graph.successorTargets.length)
+                throw new IOException("Contraction hierarchy " + path + " does not match the state space");
+
+            return new ContractionHierarchy(graph,
+                    reader.readInts(stateCount + 1), reader.readInts(forwardCount),
+                    reader.readDoubles(forwardCount), reader.readInts(forwardCount),
+                    reader.readInts(stateCount + 1), reader.readInts(backwardCount),
+                    reader.readDoubles(backwardCount), reader.readInts(backwardCount));
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(graph.getStateCount());
+            out.writeInt(graph.successorTargets.length);
+            out.writeInt(forwardTargets.length);
+            out.writeInt(backwardTargets.length);
+
+            writeInts(out, forwardOffsets);
+            writeInts(out, forwardTargets);
+            writeDoubles(out, forwardCosts);
+            writeInts(out, forwardMiddles);
+            writeInts(out, backwardOffsets);
+            writeInts(out, backwardTargets);
+            writeDoubles(out, backwardCosts);
+            writeInts(out, backwardMiddles);
+        }
+    }
+
+    public int getShortcutCount() {
+        return (int) (Arrays.stream(forwardMiddles).filter(middle -> middle != -1).count() +
+                Arrays.stream(backwardMiddles).filter(middle -> middle != -1).count());
+    }
+
+    @Override
+    public SearchResult search(SearchProblem stateSpace, Heuristic heuristic, SearchMetrics metrics) {
+        StateSpace.CompactGraph graph = StateSpace.explore(stateSpace).getCompactGraph();
+        if (graph != this.graph)
+            throw new IllegalArgumentException("The contraction hierarchy was built for a different state space");
+
+        int[] goals = IntStream.range(0, graph.getStateCount()).filter(id -> graph.goalStates[id]).toArray();
+        return new Query().search(graph.initialState, goals, metrics);
+    }
+
+    public class Query {
+        private final double[] forwardDistances;
+        private final double[] backwardDistances;
+        private final int[] forwardParentEdges;
+        private final int[] backwardParentEdges;
+        private final int[] forwardParents;
+        private final int[] backwardParents;
+        private final CompactNodeHeap forwardOpen;
+        private final CompactNodeHeap backwardOpen;
+        private int[] touched = new int[16];
+        private int touchedCount = 0;
+
+        public Query() {
+            int stateCount = graph.getStateCount();
+            forwardDistances = new double[stateCount];
+            backwardDistances = new double[stateCount];
+            Arrays.fill(forwardDistances, Double.POSITIVE_INFINITY);
+            Arrays.fill(backwardDistances, Double.POSITIVE_INFINITY);
+            forwardParentEdges = new int[stateCount];
+            backwardParentEdges = new int[stateCount];
+            forwardParents = new int[stateCount];
+            backwardParents = new int[stateCount];
+            forwardOpen = new CompactNodeHeap(stateCount);
+            backwardOpen = new CompactNodeHeap(stateCount);
+        }
+
+        public SearchResult search(int start, int[] goals, SearchMetrics metrics) {
+            reset();
+
+            double bestCost = Double.POSITIVE_INFINITY;
+            int meeting = -1;
+
+            touch(start);
+            forwardDistances[start] = 0;
+            forwardParents[start] = -1;
+            forwardOpen.add(start, 0);
+
+            for (int goal : goals) {
+                if (backwardDistances[goal] == 0)
+                    continue;
+
+                touch(goal);
+                backwardDistances[goal] = 0;
+                backwardParents[goal] = -1;
+                backwardOpen.add(goal, 0);
+
+                if (goal == start) {
+                    bestCost = 0;
+                    meeting = start;
+                }
+            }
+
+            int visitedCount = 0;
+            while (!forwardOpen.isEmpty() || !backwardOpen.isEmpty()) {
+                boolean forward = backwardOpen.isEmpty() ||
+                        !forwardOpen.isEmpty() && forwardOpen.peekPriority() <= backwardOpen.peekPriority();
+                CompactNodeHeap open = forward ? forwardOpen : backwardOpen;
+                if (open.peekPriority() >= bestCost) {
+                    open.clear();
+                    continue;
+                }
+
+                double[] distances = forward ? forwardDistances : backwardDistances;
+                double[] otherDistances = forward ? backwardDistances : forwardDistances;
+                int[] parents = forward ? forwardParents : backwardParents;
+                int[] parentEdges = forward ? forwardParentEdges : backwardParentEdges;
+                int[] offsets = forward ? forwardOffsets : backwardOffsets;
+                int[] targets = forward ? forwardTargets : backwardTargets;
+                double[] costs = forward ? forwardCosts : backwardCosts;
+
+                int n = open.remove();
+                visitedCount++;
+                metrics.expandedCount++;
+
+                for (int e = offsets[n]; e < offsets[n + 1]; e++) {
+                    metrics.generatedCount++;
+                    int m = targets[e];
+                    double distance = distances[n] + costs[e];
+
+                    if (distances[m] != Double.POSITIVE_INFINITY)
+                        metrics.duplicateCount++;
+                    if (distance >= distances[m])
+                        continue;
+
+                    if (open.contains(m)) {
+                        open.update(m, distance);
+                    } else {
+                        if (forwardDistances[m] == Double.POSITIVE_INFINITY &&
+                                backwardDistances[m] == Double.POSITIVE_INFINITY)
+                            touch(m);
+                        open.add(m, distance);
+                    }
+
+                    distances[m] = distance;
+                    parents[m] = n;
+                    parentEdges[m] = e;
+
+                    if (distance + otherDistances[m] < bestCost) {
+                        bestCost = distance + otherDistances[m];
+                        meeting = m;
+                    }
+                }
+
+                metrics.observeOpenSize(forwardOpen.size() + backwardOpen.size());
+                metrics.observeClosedSize(visitedCount);
+            }
+
+            if (meeting == -1)
+                return null;
+
+            return new SearchResult(unpack(start, meeting, metrics), visitedCount, metrics);
+        }
+
+        private Node unpack(int start, int meeting, SearchMetrics metrics) {
+            long pathStart = System.nanoTime();
+
+            int forwardEdgeCount = 0;
+            for (int id = meeting; forwardParents[id] != -1; id = forwardParents[id])
+                forwardEdgeCount++;
+            int[] forwardEdges = new int[forwardEdgeCount];
+            for (int id = meeting, i = forwardEdgeCount - 1; forwardParents[id] != -1; id = forwardParents[id])
+                forwardEdges[i--] = id;
+
+            Unpacker unpacker = new Unpacker(new Node(graph.stateNames[start]));
+            for (int id : forwardEdges) {
+                int e = forwardParentEdges[id];
+                unpacker.unpack(forwardParents[id], id, forwardCosts[e], forwardMiddles[e]);
+            }
+            for (int id = meeting; backwardParents[id] != -1; id = backwardParents[id]) {
+                int e = backwardParentEdges[id];
+                unpacker.unpack(id, backwardParents[id], backwardCosts[e], backwardMiddles[e]);
+            }
+
+            metrics.pathReconstructionNanos += System.nanoTime() - pathStart;
+            return unpacker.node;
+        }
+
+        private void touch(int state) {
+            if (touchedCount == touched.length)
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            touched[touchedCount++] = state;
+        }
+
+        private void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                forwardDistances[touched[i]] = Double.POSITIVE_INFINITY;
+                backwardDistances[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            forwardOpen.clear();
+            backwardOpen.clear();
+        }
+    }
+
+    private class Unpacker {
+        private Node node;
+        private int[] stackFrom = new int[16];
+        private int[] stackTo = new int[16];
+        private int[] stackMiddles = new int[16];
+        private double[] stackCosts = new double[16];
+        private int stackSize = 0;
+
+        Unpacker(Node node) {
+            this.node = node;
+        }
+
+        void unpack(int from, int to, double cost, int middle) {
+            push(from, to, cost, middle);
+
+            while (stackSize > 0) {
+                stackSize--;
+                from = stackFrom[stackSize];
+                to = stackTo[stackSize];
+                cost = stackCosts[stackSize];
+                middle = stackMiddles[stackSize];
+
+                if (middle == -1) {
+                    node = new Node(graph.stateNames[to], node, node.accumulatedCost + cost);
+                    continue;
+                }
+
+                int second = findEdge(forwardOffsets, forwardTargets, middle, to);
+                int first = findEdge(backwardOffsets, backwardTargets, middle, from);
+                push(middle, to, forwardCosts[second], forwardMiddles[second]);
+                push(from, middle, backwardCosts[first], backwardMiddles[first]);
+            }
+        }
+
+        private void push(int from, int to, double cost, int middle) {
+            if (stackSize == stackFrom.length) {
+                stackFrom = Arrays.copyOf(stackFrom, stackSize * 2);
+                stackTo = Arrays.copyOf(stackTo, stackSize * 2);
+                stackMiddles = Arrays.copyOf(stackMiddles, stackSize * 2);
+                stackCosts = Arrays.copyOf(stackCosts, stackSize * 2);
+            }
+
+            stackFrom[stackSize] = from;
+            stackTo[stackSize] = to;
+            stackCosts[stackSize] = cost;
+            stackMiddles[stackSize] = middle;
+            stackSize++;
+        }
+
+        private int findEdge(int[] offsets, int[] targets, int state, int target) {
+            for (int e = offsets[state]; e < offsets[state + 1]; e++) {
+                if (targets[e] == target)
+                    return e;
+            }
+
+            throw new IllegalStateException("Missing edge of a shortcut through state " + graph.stateNames[state]);
+        }
+    }
+
+    private static final class Builder {
+        private final StateSpace.CompactGraph graph;
+        private final int stateCount;
+
+        private final int[][] outTargets;
+        private final double[][] outCosts;
+        private final int[][] outMiddles;
+        private final int[] outSizes;
+        private final int[][] inTargets;
+        private final double[][] inCosts;
+        private final int[][] inMiddles;
+        private final int[] inSizes;
+
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+        private final int[] ranks;
+
+        private final double[] witnessCosts;
+        private final CompactNodeHeap witnessOpen;
+        private int[] touched = new int[16];
+        private int touchedCount = 0;
+
+        Builder(StateSpace.CompactGraph graph) {
+            this.graph = graph;
+            this.stateCount = graph.getStateCount();
+
+            outTargets = new int[stateCount][];
+            outCosts = new double[stateCount][];
+            outMiddles = new int[stateCount][];
+            outSizes = new int[stateCount];
+            inTargets = new int[stateCount][];
+            inCosts = new double[stateCount][];
+            inMiddles = new int[stateCount][];
+            inSizes = new int[stateCount];
+
+            for (int id = 0; id < stateCount; id++) {
+                int outDegree = Math.max(graph.successorOffsets[id + 1] - graph.successorOffsets[id], 1);
+                int inDegree = Math.max(graph.predecessorOffsets[id + 1] - graph.predecessorOffsets[id], 1);
+                outTargets[id] = new int[outDegree];
+                outCosts[id] = new double[outDegree];
+                outMiddles[id] = new int[outDegree];
+                inTargets[id] = new int[inDegree];
+                inCosts[id] = new double[inDegree];
+                inMiddles[id] = new int[inDegree];
+            }
+
+            for (int id = 0; id < stateCount; id++) {
+                for (int e = graph.successorOffsets[id]; e < graph.successorOffsets[id + 1]; e++) {
+                    if (graph.successorTargets[e] != id)
+                        addEdge(id, graph.successorTargets[e], graph.successorCosts[e], -1);
+                }
+            }
+
+            contracted = new boolean[stateCount];
+            contractedNeighbours = new int[stateCount];
+            ranks = new int[stateCount];
+
+            witnessCosts = new double[stateCount];
+            Arrays.fill(witnessCosts, Double.POSITIVE_INFINITY);
+            witnessOpen = new CompactNodeHeap(stateCount);
+        }
+
+        ContractionHierarchy build() {
+            CompactNodeHeap order = new CompactNodeHeap(stateCount);
+            for (int id = 0; id < stateCount; id++)
+                order.add(id, priority(id));
+
+            int rank = 0;
+            while (!order.isEmpty()) {
+                int v = order.remove();
+                double priority = priority(v);
+                if (!order.isEmpty() && priority > order.peekPriority()) {
+                    order.add(v, priority);
+                    continue;
+                }
+
+                contract(v, true);
+                contracted[v] = true;
+                ranks[v] = rank++;
+
+                for (int i = 0; i < outSizes[v]; i++)
+                    contractedNeighbours[outTargets[v][i]]++;
+                for (int i = 0; i < inSizes[v]; i++)
+                    contractedNeighbours[inTargets[v][i]]++;
+            }
+
+            int[] forwardOffsets = new int[stateCount + 1];
+            int[] backwardOffsets = new int[stateCount + 1];
+            for (int id = 0; id < stateCount; id++) {
+                forwardOffsets[id + 1] = forwardOffsets[id] + countUpward(outTargets[id], outSizes[id], id);
+                backwardOffsets[id + 1] = backwardOffsets[id] + countUpward(inTargets[id], inSizes[id], id);
+            }
+
+            int[] forwardTargets = new int[forwardOffsets[stateCount]];
+            double[] forwardCosts = new double[forwardTargets.length];
+            int[] forwardMiddles = new int[forwardTargets.length];
+            int[] backwardTargets = new int[backwardOffsets[stateCount]];
+            double[] backwardCosts = new double[backwardTargets.length];
+            int[] backwardMiddles = new int[backwardTargets.length];
+
+            for (int id = 0; id < stateCount; id++) {
+                copyUpward(id, outTargets[id], outCosts[id], outMiddles[id], outSizes[id],
+                        forwardOffsets[id], forwardTargets, forwardCosts, forwardMiddles);
+                copyUpward(id, inTargets[id], inCosts[id], inMiddles[id], inSizes[id],
+                        backwardOffsets[id], backwardTargets, backwardCosts, backwardMiddles);
+            }
+
+            return new ContractionHierarchy(graph, forwardOffsets, forwardTargets, forwardCosts, forwardMiddles,
+                    backwardOffsets, backwardTargets, backwardCosts, backwardMiddles);
+        }
+
+        private double priority(int v) {
+            int removedEdges = 0;
+            for (int i = 0; i < outSizes[v]; i++) {
+                if (!contracted[outTargets[v][i]])
+                    removedEdges++;
+            }
+            for (int i = 0; i < inSizes[v]; i++) {
+                if (!contracted[inTargets[v][i]])
+                    removedEdges++;
+            }
+
+            return contract(v, false) - removedEdges + contractedNeighbours[v];
+        }
+
+        private int contract(int v, boolean addShortcuts) {
+            int shortcutCount = 0;
+
+            for (int i = 0; i < inSizes[v]; i++) {
+                int u = inTargets[v][i];
+                if (contracted[u])
+                    continue;
+
+                double maxCost = Double.NEGATIVE_INFINITY;
+                for (int j = 0; j < outSizes[v]; j++) {
+                    int w = outTargets[v][j];
+                    if (!contracted[w] && w != u)
+                        maxCost = Math.max(maxCost, inCosts[v][i] + outCosts[v][j]);
+                }
+                if (maxCost == Double.NEGATIVE_INFINITY)
+                    continue;
+
+                searchWitnesses(u, v, maxCost, addShortcuts ? WITNESS_SETTLED_LIMIT : SIMULATION_SETTLED_LIMIT);
+
+                for (int j = 0; j < outSizes[v]; j++) {
+                    int w = outTargets[v][j];
+                    double cost = inCosts[v][i] + outCosts[v][j];
+                    if (contracted[w] || w == u || witnessCosts[w] <= cost)
+                        continue;
+
+                    shortcutCount++;
+                    if (addShortcuts)
+                        addEdge(u, w, cost, v);
+                }
+
+                for (int t = 0; t < touchedCount; t++)
+                    witnessCosts[touched[t]] = Double.POSITIVE_INFINITY;
+                touchedCount = 0;
+            }
+
+            return shortcutCount;
+        }
+
+        private void searchWitnesses(int source, int excluded, double maxCost, int settledLimit) {
+            witnessCosts[source] = 0;
+            touch(source);
+            witnessOpen.add(source, 0);
+
+            int settledCount = 0;
+            while (!witnessOpen.isEmpty()) {
+                int n = witnessOpen.remove();
+                if (witnessCosts[n] > maxCost || ++settledCount > settledLimit)
+                    break;
+
+                for (int i = 0; i < outSizes[n]; i++) {
+                    int m = outTargets[n][i];
+                    if (contracted[m] || m == excluded)
+                        continue;
+
+                    double cost = witnessCosts[n] + outCosts[n][i];
+                    if (cost >= witnessCosts[m])
+                        continue;
+
+                    if (witnessOpen.contains(m)) {
+                        witnessOpen.update(m, cost);
+                    } else {
+                        if (witnessCosts[m] == Double.POSITIVE_INFINITY)
+                            touch(m);
+                        witnessOpen.add(m, cost);
+                    }
+                    witnessCosts[m] = cost;
+                }
+            }
+
+            witnessOpen.clear();
+        }
+
+        private void touch(int state) {
+            if (touchedCount == touched.length)
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            touched[touchedCount++] = state;
+        }
+
+        private void addEdge(int from, int to, double cost, int middle) {
+            for (int i = 0; i < outSizes[from]; i++) {
+                if (outTargets[from][i] != to)
+                    continue;
+
+                if (cost < outCosts[from][i]) {
+                    outCosts[from][i] = cost;
+                    outMiddles[from][i] = middle;
+
+                    for (int j = 0; j < inSizes[to]; j++) {
+                        if (inTargets[to][j] == from) {
+                            inCosts[to][j] = cost;
+                            inMiddles[to][j] = middle;
+                        }
+                    }
+                }
+
+                return;
+            }
+
+            if (outSizes[from] == outTargets[from].length) {
+                outTargets[from] = Arrays.copyOf(outTargets[from], outSizes[from] * 2);
+                outCosts[from] = Arrays.copyOf(outCosts[from], outSizes[from] * 2);
+                outMiddles[from] = Arrays.copyOf(outMiddles[from], outSizes[from] * 2);
+            }
+            outTargets[from][outSizes[from]] = to;
+            outCosts[from][outSizes[from]] = cost;
+            outMiddles[from][outSizes[from]] = middle;
+            outSizes[from]++;
+
+            if (inSizes[to] == inTargets[to].length) {
+                inTargets[to] = Arrays.copyOf(inTargets[to], inSizes[to] * 2);
+                inCosts[to] = Arrays.copyOf(inCosts[to], inSizes[to] * 2);
+                inMiddles[to] = Arrays.copyOf(inMiddles[to], inSizes[to] * 2);
+            }
+            inTargets[to][inSizes[to]] = from;
+            inCosts[to][inSizes[to]] = cost;
+            inMiddles[to][inSizes[to]] = middle;
+            inSizes[to]++;
+        }
+
+        private int countUpward(int[] targets, int size, int state) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (ranks[targets[i]] > ranks[state])
+                    count++;
+            }
+
+            return count;
+        }
+
+        private void copyUpward(int state, int[] targets, double[] costs, int[] middles, int size, int offset,
+                                int[] upwardTargets, double[] upwardCosts, int[] upwardMiddles) {
+            for (int i = 0; i < size; i++) {
+                if (ranks[targets[i]] <= ranks[state])
+                    continue;
+
+                upwardTargets[offset] = targets[i];
+                upwardCosts[offset] = costs[i];
+                upwardMiddles[offset] = middles[i];
+                offset++;
+            }
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values)
+            out.writeInt(value);
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        for (double value : values)
+            out.writeDouble(value);
+    }
+}
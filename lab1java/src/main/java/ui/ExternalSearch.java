@@ -0,0 +1,586 @@
+package ui;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ExternalSearch {
+    private static final int RECORD_BYTES = Double.BYTES + 3 * Integer.BYTES;
+    private static final int MIN_BUFFERED_RECORDS = 1 << 10;
+    private static final int STREAM_BUFFER_BYTES = 1 << 16;
+    private static final int MERGE_FAN_IN = 16;
+
+    private final Path scratchDirectory;
+    private final int bufferedRecords;
+    private final boolean unitCosts;
+
+    private long bytesRead = 0;
+    private long bytesWritten = 0;
+    private long snapshotBytesRead = 0;
+
+    public ExternalSearch(Path scratchDirectory, long memoryLimitBytes, boolean unitCosts) {
+        if (memoryLimitBytes < (long) MIN_BUFFERED_RECORDS * RECORD_BYTES)
+            throw new IllegalArgumentException("The memory limit must be at least " +
+                    MIN_BUFFERED_RECORDS * RECORD_BYTES + " bytes");
+
+        this.scratchDirectory = scratchDirectory;
+        this.bufferedRecords = (int) Math.min(Integer.MAX_VALUE - 8, memoryLimitBytes / RECORD_BYTES);
+        this.unitCosts = unitCosts;
+    }
+
+    public SearchAlgorithm.SearchResult search(Path snapshotPath, SearchMetrics metrics) throws IOException {
+        Path directory = Files.createTempDirectory(scratchDirectory, "search");
+        try (StateSpaceSnapshot.MappedGraph graph = StateSpaceSnapshot.map(snapshotPath)) {
+            try {
+                return new Run(graph, directory, metrics).search();
+            } finally {
+                snapshotBytesRead += graph.bytesRead;
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator)
+                    Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getSnapshotBytesRead() {
+        return snapshotBytesRead;
+    }
+
+    private static final class Record {
+        private double cost;
+        private int state;
+        private int parent;
+        private int parentBatch;
+
+        private void set(double cost, int state, int parent, int parentBatch) {
+            this.cost = cost;
+            this.state = state;
+            this.parent = parent;
+            this.parentBatch = parentBatch;
+        }
+    }
+
+    private final class Run {
+        private final StateSpaceSnapshot.MappedGraph graph;
+        private final Path directory;
+        private final SearchMetrics metrics;
+        private final OpenList open = new OpenList();
+        private final List<Path> batches = new ArrayList<>();
+        private final List<Path> closedRuns = new ArrayList<>();
+        private final List<Long> closedRunSizes = new ArrayList<>();
+        private final double bucketWidth;
+        private int fileCount = 0;
+        private long settledCount = 0;
+
+        private Run(StateSpaceSnapshot.MappedGraph graph, Path directory, SearchMetrics metrics) {
+            this.graph = graph;
+            this.directory = directory;
+            this.metrics = metrics;
+            this.bucketWidth = unitCosts ? 1 : graph.minimumCost();
+        }
+
+        private SearchAlgorithm.SearchResult search() throws IOException {
+            open.add(0, graph.initialState, -1, -1);
+
+            Record record = new Record();
+            while (!open.isEmpty()) {
+                double bucket = open.peekBucket();
+                int batch = batches.size();
+                Path batchPath = newFile("batch");
+                Path closedPath = newFile("closed");
+                Record goal = null;
+                long count = 0;
+
+                try (RecordOutput batchOut = new RecordOutput(batchPath);
+                     RecordOutput closedOut = new RecordOutput(closedPath);
+                     ClosedFilter closed = new ClosedFilter()) {
+                    int previous = -1;
+                    while (!open.isEmpty() && open.peekBucket() == bucket) {
+                        open.remove(record);
+                        if (record.state == previous || closed.contains(record.state)) {
+                            metrics.duplicateCount++;
+                            continue;
+                        }
+                        previous = record.state;
+
+                        batchOut.writeInt(record.state);
+                        batchOut.writeInt(record.parent);
+                        batchOut.writeInt(record.parentBatch);
+                        batchOut.writeDouble(record.cost);
+                        closedOut.writeInt(record.state);
+                        count++;
+
+                        if (graph.isGoalState(record.state) && (goal == null || record.cost < goal.cost)) {
+                            goal = new Record();
+                            goal.set(record.cost, record.state, record.parent, record.parentBatch);
+                            if (unitCosts || bucketWidth == 0)
+                                break;
+                        }
+                    }
+                }
+
+                if (count == 0) {
+                    Files.delete(batchPath);
+                    Files.delete(closedPath);
+                    continue;
+                }
+
+                batches.add(batchPath);
+                settledCount += count;
+                metrics.observeClosedSize(settledCount);
+                if (goal != null)
+                    return new SearchAlgorithm.SearchResult(reconstructPath(goal),
+                            (int) Math.min(settledCount, Integer.MAX_VALUE), metrics);
+
+                addClosedRun(closedPath, count);
+                expand(batch, batchPath, count);
+            }
+
+            return null;
+        }
+
+        private void expand(int batch, Path batchPath, long count) throws IOException {
+            try (RecordInput in = new RecordInput(batchPath)) {
+                for (long i = 0; i < count; i++) {
+                    int state = in.readInt();
+                    in.readInt();
+                    in.readInt();
+                    double cost = in.readDouble();
+
+                    metrics.expandedCount++;
+                    int end = graph.successorStart(state + 1);
+                    for (int e = graph.successorStart(state); e < end; e++) {
+                        metrics.generatedCount++;
+                        double stepCost = unitCosts ? 1 : graph.successorCost(e);
+                        open.add(cost + stepCost, graph.successorTarget(e), state, batch);
+                    }
+
+                    metrics.observeOpenSize(open.size());
+                }
+            }
+        }
+
+        private void addClosedRun(Path path, long count) throws IOException {
+            closedRuns.add(path);
+            closedRunSizes.add(count);
+
+            while (closedRuns.size() >= 2) {
+                int last = closedRuns.size() - 1;
+                long lastSize = closedRunSizes.get(last);
+                long previousSize = closedRunSizes.get(last - 1);
+                if (previousSize > 2 * lastSize)
+                    break;
+
+                Path merged = newFile("closed");
+                try (RecordInput first = new RecordInput(closedRuns.get(last - 1));
+                     RecordInput second = new RecordInput(closedRuns.get(last));
+                     RecordOutput out = new RecordOutput(merged)) {
+                    long firstLeft = previousSize;
+                    long secondLeft = lastSize;
+                    int firstHead = firstLeft > 0 ? first.readInt() : 0;
+                    int secondHead = secondLeft > 0 ? second.readInt() : 0;
+
+                    while (firstLeft > 0 || secondLeft > 0) {
+                        if (secondLeft == 0 || firstLeft > 0 && firstHead < secondHead) {
+                            out.writeInt(firstHead);
+                            if (--firstLeft > 0)
+                                firstHead = first.readInt();
+                        } else {
+                            out.writeInt(secondHead);
+                            if (--secondLeft > 0)
+                                secondHead = second.readInt();
+                        }
+                    }
+                }
+
+                Files.delete(closedRuns.remove(last));
+                Files.delete(closedRuns.remove(last - 1));
+                closedRunSizes.remove(last);
+                closedRunSizes.remove(last - 1);
+                closedRuns.add(merged);
+                closedRunSizes.add(previousSize + lastSize);
+            }
+        }
+
+        private Node reconstructPath(Record goal) throws IOException {
+            List<Integer> path = new ArrayList<>();
+            path.add(goal.state);
+
+            int state = goal.parent;
+            int batch = goal.parentBatch;
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+            while (state != -1) {
+                path.add(state);
+
+                try (FileChannel channel = FileChannel.open(batches.get(batch), StandardOpenOption.READ)) {
+                    long low = 0;
+                    long high = channel.size() / RECORD_BYTES - 1;
+                    while (true) {
+                        if (low > high)
+                            throw new IOException("Missing parent record for state " + state);
+
+                        long middle = (low + high) >>> 1;
+                        buffer.clear();
+                        channel.read(buffer, middle * RECORD_BYTES);
+                        bytesRead += RECORD_BYTES;
+
+                        int found = buffer.getInt(0);
+                        if (found < state) {
+                            low = middle + 1;
+                        } else if (found > state) {
+                            high = middle - 1;
+                        } else {
+                            state = buffer.getInt(Integer.BYTES);
+                            batch = buffer.getInt(2 * Integer.BYTES);
+                            break;
+                        }
+                    }
+                }
+            }
+            Collections.reverse(path);
+
+            Node node = new Node(graph.getStateName(path.get(0)));
+            for (int i = 1; i < path.size(); i++) {
+                int from = path.get(i - 1);
+                int to = path.get(i);
+                double stepCost = Double.POSITIVE_INFINITY;
+                int end = graph.successorStart(from + 1);
+                for (int e = graph.successorStart(from); e < end; e++)
+                    if (graph.successorTarget(e) == to)
+                        stepCost = Math.min(stepCost, graph.successorCost(e));
+
+                node = new Node(graph.getStateName(to), node, node.accumulatedCost + stepCost);
+            }
+
+            return node;
+        }
+
+        private Path newFile(String kind) {
+            return directory.resolve(kind + "-" + fileCount++);
+        }
+
+        private double bucket(double cost) {
+            return bucketWidth > 0 ? Math.floor(cost / bucketWidth) : cost;
+        }
+
+        private int compare(double firstCost, int firstState, int firstParent,
+                            double secondCost, int secondState, int secondParent) {
+            int comparison = Double.compare(bucket(firstCost), bucket(secondCost));
+            if (comparison == 0)
+                comparison = Integer.compare(firstState, secondState);
+            if (comparison == 0)
+                comparison = Double.compare(firstCost, secondCost);
+            if (comparison == 0)
+                comparison = Integer.compare(firstParent, secondParent);
+
+            return comparison;
+        }
+
+        private int compare(Record first, Record second) {
+            return compare(first.cost, first.state, first.parent, second.cost, second.state, second.parent);
+        }
+
+        private final class ClosedFilter implements Closeable {
+            private final RecordInput[] inputs = new RecordInput[closedRuns.size()];
+            private final long[] remaining = new long[closedRuns.size()];
+            private final int[] heads = new int[closedRuns.size()];
+
+            private ClosedFilter() throws IOException {
+                for (int i = 0; i < inputs.length; i++) {
+                    inputs[i] = new RecordInput(closedRuns.get(i));
+                    remaining[i] = closedRunSizes.get(i);
+                    heads[i] = inputs[i].readInt();
+                    remaining[i]--;
+                }
+            }
+
+            private boolean contains(int state) throws IOException {
+                for (int i = 0; i < inputs.length; i++) {
+                    while (heads[i] < state && remaining[i] > 0) {
+                        heads[i] = inputs[i].readInt();
+                        remaining[i]--;
+                    }
+                    if (heads[i] == state)
+                        return true;
+                }
+
+                return false;
+            }
+
+            @Override
+            public void close() throws IOException {
+                for (RecordInput input : inputs)
+                    if (input != null)
+                        input.close();
+            }
+        }
+
+        private final class OpenList {
+            private final double[] costs = new double[bufferedRecords];
+            private final int[] states = new int[bufferedRecords];
+            private final int[] parents = new int[bufferedRecords];
+            private final int[] parentBatches = new int[bufferedRecords];
+            private int heapSize = 0;
+
+            private final List<RunInput> runs = new ArrayList<>();
+            private long runRecordCount = 0;
+
+            private boolean isEmpty() {
+                return heapSize == 0 && runs.isEmpty();
+            }
+
+            private long size() {
+                return heapSize + runRecordCount;
+            }
+
+            private double peekBucket() {
+                double bucket = heapSize > 0 ? bucket(costs[0]) : Double.POSITIVE_INFINITY;
+                for (RunInput run : runs)
+                    bucket = Math.min(bucket, bucket(run.head.cost));
+
+                return bucket;
+            }
+
+            private void add(double cost, int state, int parent, int parentBatch) throws IOException {
+                if (heapSize == bufferedRecords)
+                    spill();
+
+                int position = heapSize++;
+                costs[position] = cost;
+                states[position] = state;
+                parents[position] = parent;
+                parentBatches[position] = parentBatch;
+                siftUp(position);
+            }
+
+            private void remove(Record record) throws IOException {
+                RunInput best = null;
+                for (RunInput run : runs)
+                    if (best == null || compare(run.head, best.head) < 0)
+                        best = run;
+
+                if (best != null && (heapSize == 0 || compare(best.head.cost, best.head.state, best.head.parent,
+                        costs[0], states[0], parents[0]) < 0)) {
+                    record.set(best.head.cost, best.head.state, best.head.parent, best.head.parentBatch);
+                    runRecordCount--;
+                    if (!best.advance()) {
+                        best.close();
+                        runs.remove(best);
+                    }
+                    return;
+                }
+
+                record.set(costs[0], states[0], parents[0], parentBatches[0]);
+                heapSize--;
+                if (heapSize > 0) {
+                    move(heapSize, 0);
+                    siftDown(0);
+                }
+            }
+
+            private void spill() throws IOException {
+                Path path = newFile("open");
+                long count = heapSize;
+                try (RecordOutput out = new RecordOutput(path)) {
+                    while (heapSize > 0) {
+                        writeRecord(out, costs[0], states[0], parents[0], parentBatches[0]);
+                        heapSize--;
+                        if (heapSize > 0) {
+                            move(heapSize, 0);
+                            siftDown(0);
+                        }
+                    }
+                }
+
+                runs.add(new RunInput(path, count, 0));
+                runRecordCount += count;
+
+                for (int level = 0; ; level++) {
+                    List<RunInput> merged = new ArrayList<>();
+                    for (RunInput run : runs)
+                        if (run.level == level)
+                            merged.add(run);
+
+                    if (merged.size() < MERGE_FAN_IN)
+                        break;
+                    mergeRuns(merged, level + 1);
+                }
+            }
+
+            private void mergeRuns(List<RunInput> merged, int level) throws IOException {
+                Path path = newFile("open");
+                long count = 0;
+                try (RecordOutput out = new RecordOutput(path)) {
+                    while (!merged.isEmpty()) {
+                        RunInput best = merged.get(0);
+                        for (RunInput run : merged)
+                            if (compare(run.head, best.head) < 0)
+                                best = run;
+
+                        writeRecord(out, best.head.cost, best.head.state, best.head.parent, best.head.parentBatch);
+                        count++;
+                        if (!best.advance()) {
+                            best.close();
+                            merged.remove(best);
+                            runs.remove(best);
+                        }
+                    }
+                }
+
+                runs.add(new RunInput(path, count, level));
+            }
+
+            private void writeRecord(RecordOutput out, double cost, int state, int parent, int parentBatch)
+                    throws IOException {
+                out.writeDouble(cost);
+                out.writeInt(state);
+                out.writeInt(parent);
+                out.writeInt(parentBatch);
+            }
+
+            private void siftUp(int position) {
+                while (position > 0) {
+                    int parent = (position - 1) / 2;
+                    if (compareAt(parent, position) <= 0)
+                        break;
+
+                    swap(parent, position);
+                    position = parent;
+                }
+            }
+
+            private void siftDown(int position) {
+                while (true) {
+                    int child = position * 2 + 1;
+                    if (child >= heapSize)
+                        break;
+                    if (child + 1 < heapSize && compareAt(child + 1, child) < 0)
+                        child++;
+                    if (compareAt(position, child) <= 0)
+                        break;
+
+                    swap(position, child);
+                    position = child;
+                }
+            }
+
+            private int compareAt(int first, int second) {
+                return compare(costs[first], states[first], parents[first], costs[second], states[second], parents[second]);
+            }
+
+            private void move(int from, int to) {
+                costs[to] = costs[from];
+                states[to] = states[from];
+                parents[to] = parents[from];
+                parentBatches[to] = parentBatches[from];
+            }
+
+            private void swap(int first, int second) {
+                double cost = costs[first];
+                int state = states[first];
+                int parent = parents[first];
+                int parentBatch = parentBatches[first];
+                move(second, first);
+                costs[second] = cost;
+                states[second] = state;
+                parents[second] = parent;
+                parentBatches[second] = parentBatch;
+            }
+        }
+
+        private final class RunInput implements Closeable {
+            private final Path path;
+            private final RecordInput in;
+            private final Record head = new Record();
+            private final int level;
+            private long remaining;
+
+            private RunInput(Path path, long count, int level) throws IOException {
+                this.path = path;
+                this.in = new RecordInput(path);
+                this.level = level;
+                this.remaining = count;
+                advance();
+            }
+
+            private boolean advance() throws IOException {
+                if (remaining == 0)
+                    return false;
+
+                remaining--;
+                head.set(in.readDouble(), in.readInt(), in.readInt(), in.readInt());
+                return true;
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+                Files.delete(path);
+            }
+        }
+    }
+
+    private final class RecordOutput implements Closeable {
+        private final DataOutputStream out;
+
+        private RecordOutput(Path path) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), STREAM_BUFFER_BYTES));
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.writeInt(value);
+            bytesWritten += Integer.BYTES;
+        }
+
+        private void writeDouble(double value) throws IOException {
+            out.writeDouble(value);
+            bytesWritten += Double.BYTES;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private final class RecordInput implements Closeable {
+        private final DataInputStream in;
+
+        private RecordInput(Path path) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), STREAM_BUFFER_BYTES));
+        }
+
+        private int readInt() throws IOException {
+            bytesRead += Integer.BYTES;
+            return in.readInt();
+        }
+
+        private double readDouble() throws IOException {
+            bytesRead += Double.BYTES;
+            return in.readDouble();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package ui;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToLongFunction;
+
+public class FrontierBreadthFirstSearch implements SearchAlgorithm {
+    private static final VarHandle LONG_ELEMENT = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle INT_ELEMENT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private static final int WORDS_PER_TASK = 64;
+    private static final int TOP_DOWN_EDGE_RATIO = 14;
+    private static final int BOTTOM_UP_STATE_RATIO = 24;
+
+    private final int threadCount;
+
+    public FrontierBreadthFirstSearch(int threadCount) {
+        if (threadCount < 1)
+            throw new IllegalArgumentException("At least one thread is required");
+
+        this.threadCount = threadCount;
+    }
+
+    @Override
+    public SearchResult search(SearchProblem stateSpace, Heuristic heuristic, SearchMetrics metrics) {
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            return new Run(StateSpace.explore(stateSpace).getCompactGraph(), pool, metrics).search();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static final class Run {
+        private final StateSpace.CompactGraph graph;
+        private final ForkJoinPool pool;
+        private final SearchMetrics metrics;
+        private final int stateCount;
+        private final int wordCount;
+
+        private final long[] visited;
+        private long[] frontier;
+        private long[] next;
+        private final int[] parents;
+
+        private Run(StateSpace.CompactGraph graph, ForkJoinPool pool, SearchMetrics metrics) {
+            this.graph = graph;
+            this.pool = pool;
+            this.metrics = metrics;
+            this.stateCount = graph.getStateCount();
+            this.wordCount = (stateCount + 63) >>> 6;
+
+            visited = new long[wordCount];
+            frontier = new long[wordCount];
+            next = new long[wordCount];
+            parents = new int[stateCount];
+            Arrays.fill(parents, Integer.MAX_VALUE);
+        }
+
+        private SearchResult search() {
+            int initial = graph.initialState;
+            parents[initial] = -1;
+            set(visited, initial);
+            set(frontier, initial);
+
+            if (graph.goalStates[initial])
+                return SearchAlgorithms.compactResult(graph, initial, parents, pathCosts(initial), 1, metrics);
+
+            long frontierCount = 1;
+            long frontierEdges = degree(initial);
+            long unexploredEdges = graph.successorTargets.length - frontierEdges;
+            int visitedCount = 0;
+            boolean bottomUp = false;
+
+            while (frontierCount > 0) {
+                visitedCount += frontierCount;
+                metrics.expandedCount += frontierCount;
+                metrics.generatedCount += frontierEdges;
+                metrics.observeOpenSize(frontierCount);
+                metrics.observeClosedSize(visitedCount);
+
+                if (!bottomUp && frontierEdges > unexploredEdges / TOP_DOWN_EDGE_RATIO)
+                    bottomUp = true;
+                else if (bottomUp && frontierCount < stateCount / BOTTOM_UP_STATE_RATIO)
+                    bottomUp = false;
+
+                Arrays.fill(next, 0);
+                if (bottomUp)
+                    parallelSum(this::expandBottomUp);
+                else
+                    parallelSum(this::expandTopDown);
+
+                frontierCount = parallelSum(w -> {
+                    visited[w] |= next[w];
+                    return Long.bitCount(next[w]);
+                });
+                frontierEdges = parallelSum(w -> {
+                    long edges = 0;
+                    for (long bits = next[w]; bits != 0; bits &= bits - 1)
+                        edges += degree((w << 6) + Long.numberOfTrailingZeros(bits));
+                    return edges;
+                });
+                unexploredEdges -= frontierEdges;
+
+                int goal = firstGoal(next);
+                if (goal != -1)
+                    return SearchAlgorithms.compactResult(graph, goal, parents, pathCosts(goal), visitedCount + 1,
+                            metrics);
+
+                long[] swap = frontier;
+                frontier = next;
+                next = swap;
+            }
+
+            return null;
+        }
+
+        private long expandTopDown(int w) {
+            for (long bits = frontier[w]; bits != 0; bits &= bits - 1) {
+                int n = (w << 6) + Long.numberOfTrailingZeros(bits);
+
+                for (int e = graph.successorOffsets[n]; e < graph.successorOffsets[n + 1]; e++) {
+                    int m = graph.successorTargets[e];
+                    if (isSet(visited, m))
+                        continue;
+
+                    LONG_ELEMENT.getAndBitwiseOr(next, m >>> 6, 1L << m);
+
+                    int parent = (int) INT_ELEMENT.getVolatile(parents, m);
+                    while (n < parent && !INT_ELEMENT.compareAndSet(parents, m, parent, n))
+                        parent = (int) INT_ELEMENT.getVolatile(parents, m);
+                }
+            }
+
+            return 0;
+        }
+
+        private long expandBottomUp(int w) {
+            long unvisited = ~visited[w];
+            if (w == wordCount - 1 && (stateCount & 63) != 0)
+                unvisited &= (1L << (stateCount & 63)) - 1;
+
+            for (long bits = unvisited; bits != 0; bits &= bits - 1) {
+                int m = (w << 6) + Long.numberOfTrailingZeros(bits);
+
+                for (int e = graph.predecessorOffsets[m]; e < graph.predecessorOffsets[m + 1]; e++) {
+                    int n = graph.predecessorTargets[e];
+                    if (isSet(frontier, n)) {
+                        parents[m] = n;
+                        next[w] |= 1L << m;
+                        break;
+                    }
+                }
+            }
+
+            return 0;
+        }
+
+        private int firstGoal(long[] bitset) {
+            for (int w = 0; w < wordCount; w++)
+                for (long bits = bitset[w]; bits != 0; bits &= bits - 1) {
+                    int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (graph.goalStates[state])
+                        return state;
+                }
+
+            return -1;
+        }
+
+        private double[] pathCosts(int goal) {
+            double[] costs = new double[stateCount];
+
+            for (int m = goal; parents[m] != -1; m = parents[m]) {
+                int n = parents[m];
+                for (int e = graph.successorOffsets[n]; e < graph.successorOffsets[n + 1]; e++) {
+                    if (graph.successorTargets[e] == m) {
+                        costs[m] = graph.successorCosts[e];
+                        break;
+                    }
+                }
+            }
+
+            return costs;
+        }
+
+        private int degree(int state) {
+            return graph.successorOffsets[state + 1] - graph.successorOffsets[state];
+        }
+
+        private long parallelSum(IntToLongFunction body) {
+            return pool.invoke(new WordRangeTask(0, wordCount, body));
+        }
+
+        private static void set(long[] bitset, int index) {
+            bitset[index >>> 6] |= 1L << index;
+        }
+
+        private static boolean isSet(long[] bitset, int index) {
+            return (bitset[index >>> 6] & (1L << index)) != 0;
+        }
+    }
+
+    private static final class WordRangeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final IntToLongFunction body;
+
+        WordRangeTask(int start, int end, IntToLongFunction body) {
+            this.start = start;
+            this.end = end;
+            this.body = body;
+        }
+
+        @Override
+        protected Long compute() {
+            if (end - start <= WORDS_PER_TASK) {
+                long sum = 0;
+                for (int w = start; w < end; w++)
+                    sum += body.applyAsLong(w);
+                return sum;
+            }
+
+            int middle = (start + end) >>> 1;
+            WordRangeTask left = new WordRangeTask(start, middle, body);
+            left.fork();
+            long right = new WordRangeTask(middle, end, body).compute();
+            return left.join() + right;
+        }
+    }
+}
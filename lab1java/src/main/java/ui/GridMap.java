@@ -0,0 +1,148 @@
+package ui;
+
+import java.util.*;
+
+public class GridMap implements SearchProblem {
+    private static final int MAX_CELL_COST = 9;
+    private static final int BLOCKED_PERCENTAGE = 20;
+    private static final double DIAGONAL_FACTOR = Math.sqrt(2);
+
+    private final int width;
+    private final int height;
+    private final long seed;
+    private final boolean diagonal;
+
+    public GridMap(int width, int height, long seed, boolean diagonal) {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("A grid must have at least one cell");
+
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.diagonal = diagonal;
+    }
+
+    @Override
+    public String getInitialState() {
+        return cell(0, 0);
+    }
+
+    @Override
+    public boolean isGoalState(String state) {
+        int[] position = parse(state);
+        return position[0] == width - 1 && position[1] == height - 1;
+    }
+
+    @Override
+    public int getIntegralCostBound() {
+        return diagonal ? -1 : MAX_CELL_COST;
+    }
+
+    @Override
+    public List<Successor> getSuccessors(String state) {
+        return neighbours(state, false);
+    }
+
+    @Override
+    public boolean hasPredecessors() {
+        return true;
+    }
+
+    @Override
+    public List<Successor> getPredecessors(String state) {
+        return neighbours(state, true);
+    }
+
+    public Heuristic getHeuristic() {
+        return new Heuristic() {
+            @Override
+            public double getEstimatedCost(String state) {
+                int[] position = parse(state);
+                int dx = width - 1 - position[0];
+                int dy = height - 1 - position[1];
+
+                if (!diagonal)
+                    return dx + dy;
+
+                return Math.max(dx, dy) + (DIAGONAL_FACTOR - 1) * Math.min(dx, dy);
+            }
+
+            @Override
+            boolean hasEstimatedCost(String state) {
+                return true;
+            }
+        };
+    }
+
+    public String getHeuristicName() {
+        return diagonal ? "octile" : "manhattan";
+    }
+
+    private List<Successor> neighbours(String state, boolean incoming) {
+        int[] position = parse(state);
+        int x = position[0];
+        int y = position[1];
+
+        List<Successor> successors = new ArrayList<>(diagonal ? 8 : 4);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx == 0 && dy == 0)
+                    continue;
+                if (!isOpen(x + dx, y + dy))
+                    continue;
+                if (dx != 0 && dy != 0 && (!diagonal || !isOpen(x + dx, y) || !isOpen(x, y + dy)))
+                    continue;
+
+                double cost = incoming ? cost(x, y) : cost(x + dx, y + dy);
+                if (dx != 0 && dy != 0)
+                    cost *= DIAGONAL_FACTOR;
+
+                successors.add(new Successor(cell(x + dx, y + dy), cost));
+            }
+        }
+
+        Collections.sort(successors);
+        return successors;
+    }
+
+    private boolean isOpen(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height)
+            return false;
+        if (x == 0 && y == 0 || x == width - 1 && y == height - 1)
+            return true;
+
+        return hash(x, y) % 100 >= BLOCKED_PERCENTAGE;
+    }
+
+    private int cost(int x, int y) {
+        return 1 + (int) (hash(x, y) / 100 % MAX_CELL_COST);
+    }
+
+    private long hash(int x, int y) {
+        long z = seed + ((long) x << 32 | (y & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) >>> 1;
+    }
+
+    private int[] parse(String state) {
+        int separator = state.indexOf('_');
+        if (separator == -1)
+            throw new IllegalArgumentException("Malformed grid cell " + state);
+
+        try {
+            int x = Integer.parseInt(state.substring(0, separator));
+            int y = Integer.parseInt(state.substring(separator + 1));
+            if (x < 0 || x >= width || y < 0 || y >= height)
+                throw new IllegalArgumentException("Grid cell " + state + " is outside the grid");
+
+            return new int[]{x, y};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed grid cell " + state);
+        }
+    }
+
+    private static String cell(int x, int y) {
+        return x + "_" + y;
+    }
+}
@@ -0,0 +1,290 @@
+package ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class HashDistributedSearch implements SearchAlgorithm {
+    private static final int BATCH_SIZE = 256;
+    private static final int FLUSH_INTERVAL = 64;
+
+    private final int threadCount;
+    private final boolean useHeuristic;
+
+    public HashDistributedSearch(int threadCount, boolean useHeuristic) {
+        if (threadCount < 1)
+            throw new IllegalArgumentException("At least one thread is required");
+
+        this.threadCount = threadCount;
+        this.useHeuristic = useHeuristic;
+    }
+
+    @Override
+    public SearchResult search(SearchProblem stateSpace, Heuristic heuristic, SearchMetrics metrics) {
+        StateSpace.CompactGraph graph = StateSpace.explore(stateSpace).getCompactGraph();
+        double[] estimatedCosts = useHeuristic ? heuristic.getEstimatedCosts(graph) : new double[graph.getStateCount()];
+
+        return new Run(graph, estimatedCosts, metrics).search();
+    }
+
+    private final class Run {
+        private final StateSpace.CompactGraph graph;
+        private final double[] estimatedCosts;
+        private final SearchMetrics metrics;
+
+        private final double[] costs;
+        private final int[] parents;
+        private final double[] parentCosts;
+        private final int[] heapPositions;
+        private final double[] heapPriorities;
+        private final boolean[] closed;
+
+        private final Worker[] workers = new Worker[threadCount];
+        private final AtomicReference<Incumbent> incumbent =
+                new AtomicReference<>(new Incumbent(Double.POSITIVE_INFINITY, -1));
+        private final AtomicInteger outstandingWork = new AtomicInteger(threadCount);
+        private final AtomicLong openSize = new AtomicLong();
+        private final AtomicLong closedSize = new AtomicLong();
+        private final AtomicLong peakOpenSize = new AtomicLong();
+
+        private Run(StateSpace.CompactGraph graph, double[] estimatedCosts, SearchMetrics metrics) {
+            this.graph = graph;
+            this.estimatedCosts = estimatedCosts;
+            this.metrics = metrics;
+
+            int stateCount = graph.getStateCount();
+            costs = new double[stateCount];
+            parents = new int[stateCount];
+            parentCosts = new double[stateCount];
+            heapPositions = new int[stateCount];
+            heapPriorities = new double[stateCount];
+            closed = new boolean[stateCount];
+            Arrays.fill(costs, Double.POSITIVE_INFINITY);
+            Arrays.fill(heapPositions, -1);
+        }
+
+        private SearchResult search() {
+            for (int i = 0; i < threadCount; i++)
+                workers[i] = new Worker();
+
+            workers[owner(graph.initialState)].relax(graph.initialState, 0, -1, 0);
+
+            List<Thread> threads = new ArrayList<>();
+            for (Worker worker : workers) {
+                Thread thread = new Thread(worker);
+                thread.start();
+                threads.add(thread);
+            }
+
+            try {
+                for (Thread thread : threads)
+                    thread.join();
+            } catch (InterruptedException e) {
+                threads.forEach(Thread::interrupt);
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            for (Worker worker : workers) {
+                metrics.expandedCount += worker.expandedCount;
+                metrics.generatedCount += worker.generatedCount;
+                metrics.duplicateCount += worker.duplicateCount;
+                metrics.reopenedCount += worker.reopenedCount;
+                metrics.heuristicLookupCount += worker.heuristicLookupCount;
+            }
+            metrics.observeOpenSize(peakOpenSize.get());
+            metrics.observeClosedSize(closedSize.get());
+
+            Incumbent best = incumbent.get();
+            if (best.goal == -1)
+                return null;
+
+            int visitedCount = Arrays.stream(workers).mapToInt(w -> w.expandedCount).sum();
+            return SearchAlgorithms.compactResult(graph, best.goal, parents, parentCosts, visitedCount, metrics);
+        }
+
+        private int owner(int state) {
+            int hash = state * 0x9E3779B9;
+            return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % threadCount;
+        }
+
+        private void offerIncumbent(double cost, int goal) {
+            Incumbent current = incumbent.get();
+            while (cost < current.cost) {
+                if (incumbent.compareAndSet(current, new Incumbent(cost, goal)))
+                    return;
+
+                current = incumbent.get();
+            }
+        }
+
+        private final class Worker implements Runnable {
+            private final CompactNodeHeap open = new CompactNodeHeap(heapPositions, heapPriorities);
+            private final AtomicReference<Batch> mailbox = new AtomicReference<>();
+            private final Batch[] outgoing = new Batch[threadCount];
+            int expandedCount = 0;
+            long generatedCount = 0;
+            long duplicateCount = 0;
+            long reopenedCount = 0;
+            long heuristicLookupCount = 0;
+
+            @Override
+            public void run() {
+                while (true) {
+                    receive();
+
+                    if (!open.isEmpty() && open.peekPriority() < incumbent.get().cost) {
+                        int state = open.remove();
+                        openSize.decrementAndGet();
+                        expand(state);
+
+                        if (expandedCount % FLUSH_INTERVAL == 0)
+                            flushAll();
+                        continue;
+                    }
+
+                    flushAll();
+                    if (!waitForWork())
+                        return;
+                }
+            }
+
+            private boolean waitForWork() {
+                outstandingWork.decrementAndGet();
+
+                while (mailbox.get() == null) {
+                    if (outstandingWork.get() == 0)
+                        return false;
+                    if (Thread.currentThread().isInterrupted())
+                        return false;
+
+                    Thread.onSpinWait();
+                    Thread.yield();
+                }
+
+                outstandingWork.incrementAndGet();
+                return true;
+            }
+
+            private void receive() {
+                Batch batch = mailbox.getAndSet(null);
+
+                while (batch != null) {
+                    for (int i = 0; i < batch.size; i++)
+                        relax(batch.states[i], batch.costs[i], batch.parents[i], batch.parentCosts[i]);
+
+                    outstandingWork.addAndGet(-batch.size);
+                    batch = batch.next;
+                }
+            }
+
+            private void expand(int n) {
+                expandedCount++;
+                if (!closed[n]) {
+                    closed[n] = true;
+                    closedSize.incrementAndGet();
+                }
+
+                for (int e = graph.successorOffsets[n]; e < graph.successorOffsets[n + 1]; e++) {
+                    generatedCount++;
+                    if (useHeuristic)
+                        heuristicLookupCount++;
+                    int m = graph.successorTargets[e];
+                    double cost = costs[n] + graph.successorCosts[e];
+
+                    if (cost + estimatedCosts[m] >= incumbent.get().cost)
+                        continue;
+
+                    int owner = owner(m);
+                    if (workers[owner] == this) {
+                        relax(m, cost, n, graph.successorCosts[e]);
+                        continue;
+                    }
+
+                    Batch batch = outgoing[owner];
+                    if (batch == null)
+                        batch = outgoing[owner] = new Batch();
+
+                    batch.add(m, cost, n, graph.successorCosts[e]);
+                    if (batch.size == BATCH_SIZE)
+                        flush(owner);
+                }
+            }
+
+            void relax(int state, double cost, int parent, double parentCost) {
+                if (cost >= costs[state]) {
+                    duplicateCount++;
+                    return;
+                }
+
+                if (closed[state])
+                    reopenedCount++;
+
+                costs[state] = cost;
+                parents[state] = parent;
+                parentCosts[state] = parentCost;
+
+                if (graph.goalStates[state]) {
+                    offerIncumbent(cost, state);
+                    return;
+                }
+
+                if (open.contains(state)) {
+                    duplicateCount++;
+                    open.update(state, cost + estimatedCosts[state]);
+                } else {
+                    open.add(state, cost + estimatedCosts[state]);
+                    peakOpenSize.accumulateAndGet(openSize.incrementAndGet(), Math::max);
+                }
+            }
+
+            private void flushAll() {
+                for (int owner = 0; owner < threadCount; owner++)
+                    if (outgoing[owner] != null && outgoing[owner].size > 0)
+                        flush(owner);
+            }
+
+            private void flush(int owner) {
+                Batch batch = outgoing[owner];
+                outgoing[owner] = null;
+
+                outstandingWork.addAndGet(batch.size);
+
+                AtomicReference<Batch> target = workers[owner].mailbox;
+                do {
+                    batch.next = target.get();
+                } while (!target.compareAndSet(batch.next, batch));
+            }
+        }
+    }
+
+    private static final class Incumbent {
+        final double cost;
+        final int goal;
+
+        Incumbent(double cost, int goal) {
+            this.cost = cost;
+            this.goal = goal;
+        }
+    }
+
+    private static final class Batch {
+        final int[] states = new int[BATCH_SIZE];
+        final double[] costs = new double[BATCH_SIZE];
+        final int[] parents = new int[BATCH_SIZE];
+        final double[] parentCosts = new double[BATCH_SIZE];
+        int size = 0;
+        Batch next;
+
+        void add(int state, double cost, int parent, double parentCost) {
+            states[size] = state;
+            costs[size] = cost;
+            parents[size] = parent;
+            parentCosts[size] = parentCost;
+            size++;
+        }
+    }
+}
@@ -6,11 +6,80 @@ import java.util.stream.Stream;
 
 public class Heuristic {
     private final Map<String, Double> estimatedCosts = new HashMap<>();
+    private String[] compactStateNames = null;
+    private double[] compactEstimatedCosts = null;
 
     public double getEstimatedCost(String state) {
+        if (compactEstimatedCosts != null) {
+            int id = Arrays.binarySearch(compactStateNames, Objects.requireNonNull(state));
+            if (id < 0)
+                throw new NoSuchElementException("Unknown state " + state);
+
+            double estimatedCost = compactEstimatedCosts[id];
+            if (Double.isNaN(estimatedCost))
+                throw new NoSuchElementException("No estimated cost for state " + state);
+
+            return estimatedCost;
+        }
+
         return estimatedCosts.get(state);
     }
 
+    boolean hasEstimatedCost(String state) {
+        if (compactEstimatedCosts != null) {
+            int id = Arrays.binarySearch(compactStateNames, state);
+            return id >= 0 && !Double.isNaN(compactEstimatedCosts[id]);
+        }
+
+        return estimatedCosts.containsKey(state);
+    }
+
+    static Heuristic fromStateNames(String[] stateNames, double[] estimatedCosts) {
+        Heuristic h = new Heuristic();
+        h.compactStateNames = stateNames;
+        h.compactEstimatedCosts = estimatedCosts;
+        return h;
+    }
+
+    void setEstimatedCost(String state, double estimatedCost) {
+        estimatedCosts.put(state, estimatedCost);
+    }
+
+    public double[] getEstimatedCosts(StateSpace.CompactGraph graph) {
+        if (graph.stateNames == compactStateNames)
+            return compactEstimatedCosts.clone();
+
+        double[] costs = new double[graph.getStateCount()];
+        for (int id = 0; id < costs.length; id++)
+            costs[id] = getEstimatedCost(graph.stateNames[id]);
+
+        return costs;
+    }
+
+    public static Heuristic max(Heuristic first, Heuristic second) {
+        return new Heuristic() {
+            @Override
+            public double getEstimatedCost(String state) {
+                return Math.max(first.getEstimatedCost(state), second.getEstimatedCost(state));
+            }
+
+            @Override
+            boolean hasEstimatedCost(String state) {
+                return first.hasEstimatedCost(state) && second.hasEstimatedCost(state);
+            }
+
+            @Override
+            public double[] getEstimatedCosts(StateSpace.CompactGraph graph) {
+                double[] costs = first.getEstimatedCosts(graph);
+                double[] secondCosts = second.getEstimatedCosts(graph);
+                for (int id = 0; id < costs.length; id++)
+                    costs[id] = Math.max(costs[id], secondCosts[id]);
+
+                return costs;
+            }
+        };
+    }
+
     public static Heuristic read(Stream<String> lines) throws IOException {
         Heuristic h = new Heuristic();
 
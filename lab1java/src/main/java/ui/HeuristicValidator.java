@@ -0,0 +1,193 @@
+package ui;
+
+import java.io.PrintWriter;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+public class HeuristicValidator {
+    private static final int STATES_PER_CHUNK = 4096;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final char DECIMAL_SEPARATOR =
+            DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+
+    private final int threadCount;
+    private final PrintWriter out;
+    private final boolean summaryOnly;
+
+    public HeuristicValidator(int threadCount, PrintWriter out, boolean summaryOnly) {
+        if (threadCount < 1)
+            throw new IllegalArgumentException("At least one thread is required");
+
+        this.threadCount = threadCount;
+        this.out = out;
+        this.summaryOnly = summaryOnly;
+    }
+
+    public boolean checkOptimistic(StateSpace stateSpace, Heuristic heuristic) {
+        StateSpace.CompactGraph graph = stateSpace.getCompactGraph();
+        double[] estimatedCosts = heuristic.getEstimatedCosts(graph);
+        double[] actualCosts = ShortestPaths.compute(graph, goalStates(graph), true).distances;
+        int[] states = declaredStates(stateSpace, graph);
+
+        long[] counts = run(states, (start, end) -> {
+            ChunkResult result = new ChunkResult();
+
+            for (int i = start; i < end; i++) {
+                int state = states[i];
+                boolean ok = estimatedCosts[state] <= actualCosts[state];
+
+                result.checked++;
+                if (!ok)
+                    result.failed++;
+                if (ok && summaryOnly)
+                    continue;
+
+                result.text.append("[CONDITION]: [").append(ok ? "OK" : "ERR").append("] h(")
+                           .append(graph.stateNames[state]).append(") <= h*: ");
+                appendCost(result.text, estimatedCosts[state]);
+                result.text.append(" <= ");
+                appendCost(result.text, actualCosts[state]);
+                result.text.append('\n');
+            }
+
+            return result;
+        });
+
+        boolean isOptimistic = counts[1] == 0;
+        printSummary(counts);
+        if (isOptimistic)
+            out.println("[CONCLUSION]: Heuristic is optimistic.");
+        else
+            out.println("[CONCLUSION]: Heuristic is not optimistic.");
+        out.flush();
+
+        return isOptimistic;
+    }
+
+    public boolean checkConsistent(StateSpace stateSpace, Heuristic heuristic) {
+        StateSpace.CompactGraph graph = stateSpace.getCompactGraph();
+        double[] estimatedCosts = heuristic.getEstimatedCosts(graph);
+        int[] states = declaredStates(stateSpace, graph);
+
+        long[] counts = run(states, (start, end) -> {
+            ChunkResult result = new ChunkResult();
+
+            for (int i = start; i < end; i++) {
+                int source = states[i];
+
+                for (int e = graph.successorOffsets[source]; e < graph.successorOffsets[source + 1]; e++) {
+                    int destination = graph.successorTargets[e];
+                    double cost = graph.successorCosts[e];
+                    boolean ok = estimatedCosts[source] <= estimatedCosts[destination] + cost;
+
+                    result.checked++;
+                    if (!ok)
+                        result.failed++;
+                    if (ok && summaryOnly)
+                        continue;
+
+                    result.text.append("[CONDITION]: [").append(ok ? "OK" : "ERR").append("] h(")
+                               .append(graph.stateNames[source]).append(") <= h(")
+                               .append(graph.stateNames[destination]).append(") + c: ");
+                    appendCost(result.text, estimatedCosts[source]);
+                    result.text.append(" <= ");
+                    appendCost(result.text, estimatedCosts[destination]);
+                    result.text.append(" + ");
+                    appendCost(result.text, cost);
+                    result.text.append('\n');
+                }
+            }
+
+            return result;
+        });
+
+        boolean isConsistent = counts[1] == 0;
+        printSummary(counts);
+        if (isConsistent)
+            out.println("[CONCLUSION]: Heuristic is consistent.");
+        else
+            out.println("[CONCLUSION]: Heuristic is not consistent.");
+        out.flush();
+
+        return isConsistent;
+    }
+
+    private void printSummary(long[] counts) {
+        if (!summaryOnly)
+            return;
+
+        out.println("[CONDITIONS_CHECKED]: " + counts[0]);
+        out.println("[CONDITIONS_FAILED]: " + counts[1]);
+    }
+
+    private long[] run(int[] states, BiFunction<Integer, Integer, ChunkResult> chunkChecker) {
+        long[] counts = new long[2];
+        int chunkCount = (states.length + STATES_PER_CHUNK - 1) / STATES_PER_CHUNK;
+        int wave = threadCount * CHUNKS_PER_THREAD;
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            for (int first = 0; first < chunkCount; first += wave) {
+                List<Callable<ChunkResult>> tasks = new ArrayList<>();
+                for (int chunk = first; chunk < Math.min(first + wave, chunkCount); chunk++) {
+                    int start = chunk * STATES_PER_CHUNK;
+                    int end = Math.min(start + STATES_PER_CHUNK, states.length);
+                    tasks.add(() -> chunkChecker.apply(start, end));
+                }
+
+                for (Future<ChunkResult> future : pool.invokeAll(tasks)) {
+                    ChunkResult result = future.get();
+                    out.append(result.text);
+                    counts[0] += result.checked;
+                    counts[1] += result.failed;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Heuristic validation was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        return counts;
+    }
+
+    private static int[] goalStates(StateSpace.CompactGraph graph) {
+        return IntStream.range(0, graph.getStateCount()).filter(id -> graph.goalStates[id]).toArray();
+    }
+
+    private static int[] declaredStates(StateSpace stateSpace, StateSpace.CompactGraph graph) {
+        return stateSpace.getStates().stream().mapToInt(graph::getStateId).toArray();
+    }
+
+    private static void appendCost(StringBuilder sb, double cost) {
+        if (Double.isFinite(cost) && Math.abs(cost) < 1e15 && Double.doubleToRawLongBits(cost) != Long.MIN_VALUE) {
+            long tenths = Math.round(cost * 10);
+            if (tenths / 10.0 == cost) {
+                if (tenths < 0) {
+                    sb.append('-');
+                    tenths = -tenths;
+                }
+                sb.append(tenths / 10).append(DECIMAL_SEPARATOR).append(tenths % 10);
+                return;
+            }
+        }
+
+        sb.append(String.format("%.1f", cost));
+    }
+
+    private static final class ChunkResult {
+        final StringBuilder text = new StringBuilder();
+        long checked = 0;
+        long failed = 0;
+    }
+}
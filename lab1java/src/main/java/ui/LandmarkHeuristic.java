@@ -0,0 +1,317 @@
+package ui;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class LandmarkHeuristic extends Heuristic {
+    private static final int MAGIC = 0x55494C4D;
+    private static final int VERSION = 1;
+
+    public enum Strategy {
+        FARTHEST, AVOID
+    }
+
+    private final StateSpace.CompactGraph graph;
+    private final int[] landmarks;
+    private final boolean exact;
+    private final float[] fromLandmark;
+    private final float[] toLandmark;
+    private final double[] goalFromLandmark;
+    private final double[] goalToLandmark;
+
+    private LandmarkHeuristic(StateSpace.CompactGraph graph, int[] landmarks, boolean exact,
+                              float[] fromLandmark, float[] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.exact = exact;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+
+        int landmarkCount = landmarks.length;
+        goalFromLandmark = new double[landmarkCount];
+        goalToLandmark = new double[landmarkCount];
+        Arrays.fill(goalFromLandmark, Double.POSITIVE_INFINITY);
+        Arrays.fill(goalToLandmark, Double.NEGATIVE_INFINITY);
+
+        for (int id = 0; id < graph.getStateCount(); id++) {
+            if (!graph.goalStates[id])
+                continue;
+
+            for (int k = 0; k < landmarkCount; k++) {
+                float from = fromLandmark[id * landmarkCount + k];
+                float to = toLandmark[id * landmarkCount + k];
+                goalFromLandmark[k] = Math.min(goalFromLandmark[k], exact ? from : Math.nextDown(from));
+                goalToLandmark[k] = Math.max(goalToLandmark[k], exact ? to : Math.nextUp(to));
+            }
+        }
+
+        for (int k = 0; k < landmarkCount; k++) {
+            if (goalToLandmark[k] == Double.NEGATIVE_INFINITY)
+                goalToLandmark[k] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    public static LandmarkHeuristic build(StateSpace stateSpace, int landmarkCount, Strategy strategy) {
+        if (landmarkCount < 1)
+            throw new IllegalArgumentException("At least one landmark is required");
+
+        StateSpace.CompactGraph graph = stateSpace.getCompactGraph();
+        int stateCount = graph.getStateCount();
+        if ((long) stateCount * landmarkCount > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many landmarks for a state space of " + stateCount + " states");
+
+        ShortestPaths fromInitial = ShortestPaths.compute(graph, new int[]{graph.initialState}, false);
+        List<double[]> fromDistances = new ArrayList<>();
+        List<double[]> toDistances = new ArrayList<>();
+        boolean[] isLandmark = new boolean[stateCount];
+        Random random = new Random(0);
+        int[] landmarks = new int[landmarkCount];
+        int count = 0;
+
+        while (count < landmarkCount) {
+            int landmark = -1;
+            if (strategy == Strategy.AVOID) {
+                int root = fromInitial.settledOrder[random.nextInt(fromInitial.settledCount)];
+                landmark = avoid(graph, root, fromDistances, toDistances, isLandmark);
+            }
+            if (landmark == -1)
+                landmark = farthest(fromInitial, fromDistances, isLandmark);
+            if (landmark == -1)
+                break;
+
+            isLandmark[landmark] = true;
+            landmarks[count++] = landmark;
+            fromDistances.add(ShortestPaths.compute(graph, new int[]{landmark}, false).distances);
+            toDistances.add(ShortestPaths.compute(graph, new int[]{landmark}, true).distances);
+        }
+
+        landmarks = Arrays.copyOf(landmarks, count);
+        float[] fromLandmark = new float[stateCount * count];
+        float[] toLandmark = new float[stateCount * count];
+        boolean exact = true;
+
+        for (int k = 0; k < count; k++) {
+            double[] from = fromDistances.get(k);
+            double[] to = toDistances.get(k);
+
+            for (int id = 0; id < stateCount; id++) {
+                fromLandmark[id * count + k] = roundUp(from[id]);
+                toLandmark[id * count + k] = roundDown(to[id]);
+                exact &= fromLandmark[id * count + k] == from[id] && toLandmark[id * count + k] == to[id];
+            }
+        }
+
+        return new LandmarkHeuristic(graph, landmarks, exact, fromLandmark, toLandmark);
+    }
+
+    public static LandmarkHeuristic read(Path path, StateSpace stateSpace) throws IOException {
+        StateSpace.CompactGraph graph = stateSpace.getCompactGraph();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedFileReader reader = new MappedFileReader(channel, "landmark table");
+            if (reader.readInt() != MAGIC)
+                throw new IOException("Not a landmark table: " + path);
+            int version = reader.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported landmark table version " + version);
+
+            int stateCount = reader.readInt();
+            int successorCount = reader.readInt();
+            int landmarkCount = reader.readInt();
+            boolean exact = reader.readByte() != 0;
+            if (stateCount != graph.getStateCount() || successorCount != graph.successorTargets.length)
+                throw new IOException("Landmark table " + path + " does not match the state space");
+
+            int[] landmarks = reader.readInts(landmarkCount);
+            float[] fromLandmark = reader.readFloats(stateCount * landmarkCount);
+            float[] toLandmark = reader.readFloats(stateCount * landmarkCount);
+
+            return new LandmarkHeuristic(graph, landmarks, exact, fromLandmark, toLandmark);
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(graph.getStateCount());
+            out.writeInt(graph.successorTargets.length);
+            out.writeInt(landmarks.length);
+            out.writeBoolean(exact);
+
+            for (int landmark : landmarks)
+                out.writeInt(landmark);
+            for (float distance : fromLandmark)
+                out.writeFloat(distance);
+            for (float distance : toLandmark)
+                out.writeFloat(distance);
+        }
+    }
+
+    public List<String> getLandmarks() {
+        List<String> names = new ArrayList<>(landmarks.length);
+        for (int landmark : landmarks)
+            names.add(graph.stateNames[landmark]);
+
+        return names;
+    }
+
+    @Override
+    public double getEstimatedCost(String state) {
+        return estimate(graph.getStateId(state));
+    }
+
+    @Override
+    boolean hasEstimatedCost(String state) {
+        return Arrays.binarySearch(graph.stateNames, state) >= 0;
+    }
+
+    @Override
+    public double[] getEstimatedCosts(StateSpace.CompactGraph graph) {
+        if (graph != this.graph)
+            return super.getEstimatedCosts(graph);
+
+        double[] costs = new double[graph.getStateCount()];
+        for (int id = 0; id < costs.length; id++)
+            costs[id] = estimate(id);
+
+        return costs;
+    }
+
+    private double estimate(int state) {
+        int landmarkCount = landmarks.length;
+        int offset = state * landmarkCount;
+        double estimate = 0;
+
+        for (int k = 0; k < landmarkCount; k++) {
+            if (goalToLandmark[k] != Double.POSITIVE_INFINITY) {
+                float to = toLandmark[offset + k];
+                if (to == Float.POSITIVE_INFINITY)
+                    return Double.POSITIVE_INFINITY;
+                estimate = Math.max(estimate, to - goalToLandmark[k]);
+            }
+
+            float from = fromLandmark[offset + k];
+            if (from != Float.POSITIVE_INFINITY) {
+                if (goalFromLandmark[k] == Double.POSITIVE_INFINITY)
+                    return Double.POSITIVE_INFINITY;
+                estimate = Math.max(estimate, goalFromLandmark[k] - from);
+            }
+        }
+
+        return estimate;
+    }
+
+    private static int farthest(ShortestPaths fromInitial, List<double[]> fromDistances, boolean[] isLandmark) {
+        int best = -1;
+        double bestScore = 0;
+
+        for (int i = 0; i < fromInitial.settledCount; i++) {
+            int state = fromInitial.settledOrder[i];
+            if (isLandmark[state])
+                continue;
+
+            double score = fromDistances.isEmpty() ? fromInitial.distances[state] : Double.POSITIVE_INFINITY;
+            for (double[] from : fromDistances)
+                score = Math.min(score, from[state]);
+
+            if (score > bestScore || score == bestScore && best != -1 && state < best) {
+                best = state;
+                bestScore = score;
+            }
+        }
+
+        return best;
+    }
+
+    private static int avoid(StateSpace.CompactGraph graph, int root, List<double[]> fromDistances,
+                             List<double[]> toDistances, boolean[] isLandmark) {
+        ShortestPaths tree = ShortestPaths.compute(graph, new int[]{root}, false);
+        int stateCount = graph.getStateCount();
+        double[] sizes = new double[stateCount];
+        boolean[] coversLandmark = new boolean[stateCount];
+
+        for (int i = 0; i < tree.settledCount; i++) {
+            int state = tree.settledOrder[i];
+            double bound = 0;
+
+            for (int k = 0; k < fromDistances.size(); k++) {
+                double[] from = fromDistances.get(k);
+                double[] to = toDistances.get(k);
+                bound = Math.max(bound, difference(to[root], to[state]));
+                bound = Math.max(bound, difference(from[state], from[root]));
+            }
+
+            sizes[state] = Math.max(0, tree.distances[state] - bound);
+        }
+
+        for (int i = tree.settledCount - 1; i >= 0; i--) {
+            int state = tree.settledOrder[i];
+            coversLandmark[state] |= isLandmark[state];
+            if (coversLandmark[state])
+                sizes[state] = 0;
+
+            int parent = tree.parents[state];
+            if (parent != -1) {
+                sizes[parent] += sizes[state];
+                coversLandmark[parent] |= coversLandmark[state];
+            }
+        }
+
+        int[] childOffsets = new int[stateCount + 1];
+        for (int i = 0; i < tree.settledCount; i++) {
+            int parent = tree.parents[tree.settledOrder[i]];
+            if (parent != -1)
+                childOffsets[parent + 1]++;
+        }
+        for (int id = 0; id < stateCount; id++)
+            childOffsets[id + 1] += childOffsets[id];
+
+        int[] children = new int[childOffsets[stateCount]];
+        int[] childCounts = new int[stateCount];
+        for (int i = 0; i < tree.settledCount; i++) {
+            int state = tree.settledOrder[i];
+            int parent = tree.parents[state];
+            if (parent != -1)
+                children[childOffsets[parent] + childCounts[parent]++] = state;
+        }
+
+        int state = root;
+        while (true) {
+            int next = -1;
+            for (int c = childOffsets[state]; c < childOffsets[state + 1]; c++) {
+                int child = children[c];
+                if (sizes[child] > 0 && (next == -1 || sizes[child] > sizes[next]))
+                    next = child;
+            }
+
+            if (next == -1)
+                return state == root ? -1 : state;
+            state = next;
+        }
+    }
+
+    private static double difference(double minuend, double subtrahend) {
+        if (minuend == Double.POSITIVE_INFINITY || subtrahend == Double.POSITIVE_INFINITY)
+            return 0;
+
+        return minuend - subtrahend;
+    }
+
+    private static float roundUp(double distance) {
+        float rounded = (float) distance;
+        return rounded < distance ? Math.nextUp(rounded) : rounded;
+    }
+
+    private static float roundDown(double distance) {
+        float rounded = (float) distance;
+        return rounded > distance ? Math.nextDown(rounded) : rounded;
+    }
+}
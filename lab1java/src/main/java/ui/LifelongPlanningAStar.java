@@ -0,0 +1,293 @@
+package ui;
+
+import java.util.*;
+
+public class LifelongPlanningAStar {
+    private static final int GOAL = 0;
+
+    private final StateSpace stateSpace;
+    private final Heuristic heuristic;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final int start;
+
+    private double[] costs = new double[16];
+    private double[] lookaheadCosts = new double[16];
+    private double[] estimatedCosts = new double[16];
+    private double[] primaryKeys = new double[16];
+    private double[] secondaryKeys = new double[16];
+    private int[] heapPositions = new int[16];
+    private int[] heap = new int[16];
+    private int heapSize = 0;
+
+    public LifelongPlanningAStar(StateSpace stateSpace, Heuristic heuristic) {
+        this.stateSpace = Objects.requireNonNull(stateSpace);
+        this.heuristic = heuristic;
+
+        names.add(null);
+        initialize(GOAL);
+        start = id(stateSpace.getInitialState());
+        lookaheadCosts[start] = 0;
+        push(start);
+    }
+
+    public void setTransitionCost(String from, String to, double cost) {
+        stateSpace.setTransitionCost(from, to, cost);
+        transitionChanged(to);
+    }
+
+    public void addTransition(String from, String to, double cost) {
+        stateSpace.addTransition(from, to, cost);
+        transitionChanged(to);
+    }
+
+    public void removeTransition(String from, String to) {
+        stateSpace.removeTransition(from, to);
+        transitionChanged(to);
+    }
+
+    public SearchAlgorithm.SearchResult search(SearchMetrics metrics) {
+        int visitedCount = computeShortestPath(metrics);
+        if (costs[GOAL] == Double.POSITIVE_INFINITY)
+            return null;
+
+        return new SearchAlgorithm.SearchResult(extractPath(), visitedCount, metrics);
+    }
+
+    private void transitionChanged(String to) {
+        updateState(id(to));
+    }
+
+    private int computeShortestPath(SearchMetrics metrics) {
+        int visitedCount = 0;
+
+        while (heapSize > 0 && (compareKeys(heap[0], GOAL) <= 0 || lookaheadCosts[GOAL] != costs[GOAL])) {
+            int state = pop();
+            visitedCount++;
+            metrics.expandedCount++;
+
+            if (costs[state] > lookaheadCosts[state]) {
+                costs[state] = lookaheadCosts[state];
+            } else {
+                costs[state] = Double.POSITIVE_INFINITY;
+                metrics.reopenedCount++;
+                updateState(state);
+            }
+
+            if (state == GOAL)
+                continue;
+
+            String name = names.get(state);
+            for (SearchProblem.Successor successor : stateSpace.getSuccessors(name)) {
+                metrics.generatedCount++;
+                updateState(id(successor.destination));
+            }
+            if (stateSpace.isGoalState(name))
+                updateState(GOAL);
+
+            metrics.observeOpenSize(heapSize);
+            metrics.observeClosedSize(names.size());
+        }
+
+        return visitedCount;
+    }
+
+    private void updateState(int state) {
+        if (state != start)
+            lookaheadCosts[state] = lookaheadCost(state);
+
+        if (heapPositions[state] != -1)
+            removeFromHeap(state);
+        if (costs[state] != lookaheadCosts[state])
+            push(state);
+    }
+
+    private double lookaheadCost(int state) {
+        double best = Double.POSITIVE_INFINITY;
+
+        if (state == GOAL) {
+            for (String goal : stateSpace.getGoalStates()) {
+                Integer id = ids.get(goal);
+                if (id != null)
+                    best = Math.min(best, costs[id]);
+            }
+            return best;
+        }
+
+        for (SearchProblem.Successor predecessor : stateSpace.getPredecessors(names.get(state))) {
+            Integer id = ids.get(predecessor.destination);
+            if (id != null)
+                best = Math.min(best, costs[id] + predecessor.cost);
+        }
+
+        return best;
+    }
+
+    private Node extractPath() {
+        Deque<SearchProblem.Successor> path = new ArrayDeque<>();
+        Set<Integer> onPath = new HashSet<>();
+
+        int state = GOAL;
+        while (state != start) {
+            int best = -1;
+            double bestCost = Double.POSITIVE_INFINITY;
+            double bestStep = 0;
+
+            Collection<SearchProblem.Successor> predecessors = state == GOAL
+                    ? goalPredecessors()
+                    : stateSpace.getPredecessors(names.get(state));
+            for (SearchProblem.Successor predecessor : predecessors) {
+                Integer id = ids.get(predecessor.destination);
+                if (id == null || onPath.contains(id))
+                    continue;
+
+                double cost = costs[id] + predecessor.cost;
+                if (cost < bestCost) {
+                    best = id;
+                    bestCost = cost;
+                    bestStep = predecessor.cost;
+                }
+            }
+
+            if (best == -1)
+                throw new IllegalStateException("No consistent path to " + names.get(state));
+            if (state != GOAL)
+                path.addFirst(new SearchProblem.Successor(names.get(state), bestStep));
+            onPath.add(best);
+            state = best;
+        }
+
+        Node node = new Node(names.get(start));
+        for (SearchProblem.Successor step : path)
+            node = node.constructChild(step);
+
+        return node;
+    }
+
+    private List<SearchProblem.Successor> goalPredecessors() {
+        List<SearchProblem.Successor> goals = new ArrayList<>();
+        for (String goal : new TreeSet<>(stateSpace.getGoalStates()))
+            goals.add(new SearchProblem.Successor(goal, 0));
+
+        return goals;
+    }
+
+    private int id(String name) {
+        Integer id = ids.get(name);
+        if (id != null)
+            return id;
+
+        int state = names.size();
+        ids.put(name, state);
+        names.add(name);
+        initialize(state);
+        return state;
+    }
+
+    private void initialize(int state) {
+        if (state == costs.length) {
+            int capacity = state * 2;
+            costs = Arrays.copyOf(costs, capacity);
+            lookaheadCosts = Arrays.copyOf(lookaheadCosts, capacity);
+            estimatedCosts = Arrays.copyOf(estimatedCosts, capacity);
+            primaryKeys = Arrays.copyOf(primaryKeys, capacity);
+            secondaryKeys = Arrays.copyOf(secondaryKeys, capacity);
+            heapPositions = Arrays.copyOf(heapPositions, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+        }
+
+        costs[state] = Double.POSITIVE_INFINITY;
+        lookaheadCosts[state] = Double.POSITIVE_INFINITY;
+        heapPositions[state] = -1;
+
+        String name = names.get(state);
+        estimatedCosts[state] = name == null || heuristic == null || !heuristic.hasEstimatedCost(name)
+                ? 0
+                : heuristic.getEstimatedCost(name);
+    }
+
+    private void push(int state) {
+        double cost = Math.min(costs[state], lookaheadCosts[state]);
+        primaryKeys[state] = cost + estimatedCosts[state];
+        secondaryKeys[state] = cost;
+
+        heapPositions[state] = heapSize;
+        heap[heapSize++] = state;
+        siftUp(heapPositions[state]);
+    }
+
+    private int pop() {
+        int state = heap[0];
+        removeFromHeap(state);
+        return state;
+    }
+
+    private void removeFromHeap(int state) {
+        int position = heapPositions[state];
+        heapPositions[state] = -1;
+
+        int last = heap[--heapSize];
+        if (last == state)
+            return;
+
+        heap[position] = last;
+        heapPositions[last] = position;
+        siftDown(position);
+        siftUp(heapPositions[last]);
+    }
+
+    private void siftUp(int position) {
+        int state = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (compareHeapKeys(heap[parent], state) <= 0)
+                break;
+
+            heap[position] = heap[parent];
+            heapPositions[heap[position]] = position;
+            position = parent;
+        }
+
+        heap[position] = state;
+        heapPositions[state] = position;
+    }
+
+    private void siftDown(int position) {
+        int state = heap[position];
+        while (true) {
+            int child = position * 2 + 1;
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && compareHeapKeys(heap[child + 1], heap[child]) < 0)
+                child++;
+            if (compareHeapKeys(state, heap[child]) <= 0)
+                break;
+
+            heap[position] = heap[child];
+            heapPositions[heap[position]] = position;
+            position = child;
+        }
+
+        heap[position] = state;
+        heapPositions[state] = position;
+    }
+
+    private int compareHeapKeys(int first, int second) {
+        int comparison = Double.compare(primaryKeys[first], primaryKeys[second]);
+        if (comparison == 0)
+            comparison = Double.compare(secondaryKeys[first], secondaryKeys[second]);
+        if (comparison == 0)
+            comparison = Integer.compare(first, second);
+
+        return comparison;
+    }
+
+    private int compareKeys(int queued, int state) {
+        double cost = Math.min(costs[state], lookaheadCosts[state]);
+        int comparison = Double.compare(primaryKeys[queued], cost + estimatedCosts[state]);
+        if (comparison == 0)
+            comparison = Double.compare(secondaryKeys[queued], cost);
+
+        return comparison;
+    }
+}
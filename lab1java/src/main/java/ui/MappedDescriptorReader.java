@@ -0,0 +1,343 @@
+package ui;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public final class MappedDescriptorReader {
+    private static final long CHUNK_SIZE = 16 << 20;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private MappedDescriptorReader() {}
+
+    public static StateSpace readStateSpace(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            String initialState = null;
+            String goalLine = null;
+            long position = 0;
+
+            while (goalLine == null && position < size) {
+                long lineEnd = findLineEnd(channel, position, size);
+                String line = decodeLine(channel, position, lineEnd);
+                position = Math.min(lineEnd + 1, size);
+
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                if (initialState == null)
+                    initialState = line;
+                else
+                    goalLine = line;
+            }
+
+            if (goalLine == null)
+                throw new IOException("State space descriptor is missing the initial or goal state line");
+
+            StateSpace ss = StateSpace.create(initialState, new HashSet<>(Arrays.asList(goalLine.split(" "))));
+
+            for (Chunk chunk : parseChunks(channel, position, size, false)) {
+                int edge = 0;
+                for (int line = 0; line < chunk.sources.size(); line++) {
+                    String from = chunk.sources.get(line);
+                    ss.addState(from);
+
+                    for (int end = edge + chunk.edgeCounts[line]; edge < end; edge++)
+                        ss.addSuccessor(from, chunk.destinations[edge], chunk.costs[edge]);
+                }
+            }
+
+            return ss;
+        }
+    }
+
+    public static Heuristic readHeuristic(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Heuristic h = new Heuristic();
+
+            for (Chunk chunk : parseChunks(channel, 0, channel.size(), true))
+                for (int line = 0; line < chunk.sources.size(); line++)
+                    h.setEstimatedCost(chunk.sources.get(line), chunk.costs[line]);
+
+            return h;
+        }
+    }
+
+    private static List<Chunk> parseChunks(FileChannel channel, long start, long end, boolean heuristic)
+            throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(start);
+        for (long position = start + CHUNK_SIZE; position < end; ) {
+            long boundary = findLineEnd(channel, position, end) + 1;
+            if (boundary >= end)
+                break;
+
+            boundaries.add(boundary);
+            position = boundary + CHUNK_SIZE;
+        }
+        boundaries.add(end);
+
+        List<MappedByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i + 1 < boundaries.size(); i++) {
+            long chunkStart = boundaries.get(i);
+            buffers.add(channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, boundaries.get(i + 1) - chunkStart));
+        }
+
+        return IntStream.range(0, buffers.size())
+                        .parallel()
+                        .mapToObj(i -> new Chunk(buffers.get(i), heuristic))
+                        .collect(Collectors.toList());
+    }
+
+    private static long findLineEnd(FileChannel channel, long position, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        while (position < end) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0)
+                break;
+
+            for (int i = 0; i < read && position + i < end; i++)
+                if (buffer.get(i) == '\n')
+                    return position + i;
+
+            position += read;
+        }
+
+        return end;
+    }
+
+    private static String decodeLine(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, start + buffer.position()) < 0)
+                break;
+
+        int length = buffer.position();
+        if (length > 0 && buffer.get(length - 1) == '\r')
+            length--;
+
+        return new String(buffer.array(), 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static final class Chunk {
+        private final ByteBuffer buffer;
+        private final SymbolTable symbols;
+
+        final List<String> sources = new ArrayList<>();
+        int[] edgeCounts = new int[64];
+        String[] destinations = new String[256];
+        double[] costs = new double[256];
+        private int edgeCount = 0;
+
+        Chunk(ByteBuffer buffer, boolean heuristic) {
+            this.buffer = buffer;
+            this.symbols = new SymbolTable(buffer);
+
+            int limit = buffer.limit();
+            for (int lineStart = 0; lineStart < limit; ) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n')
+                    lineEnd++;
+
+                int contentEnd = lineEnd;
+                if (contentEnd > lineStart && buffer.get(contentEnd - 1) == '\r')
+                    contentEnd--;
+
+                if (contentEnd > lineStart && buffer.get(lineStart) != '#') {
+                    if (heuristic)
+                        parseHeuristicLine(lineStart, contentEnd);
+                    else
+                        parseStateLine(lineStart, contentEnd);
+                }
+
+                lineStart = lineEnd + 1;
+            }
+        }
+
+        private void parseStateLine(int start, int end) {
+            int colon = indexOf(':', start, end);
+            if (colon < 0)
+                throw malformed(start, end);
+            sources.add(symbols.intern(start, colon));
+
+            int count = 0;
+            for (int tokenStart = colon + 2; tokenStart < end; ) {
+                int tokenEnd = indexOf(' ', tokenStart, end);
+                if (tokenEnd < 0)
+                    tokenEnd = end;
+
+                int comma = indexOf(',', tokenStart, tokenEnd);
+                if (comma < 0)
+                    throw malformed(start, end);
+
+                addEdge(symbols.intern(tokenStart, comma), parseDouble(comma + 1, tokenEnd));
+                count++;
+
+                tokenStart = tokenEnd + 1;
+            }
+
+            if (sources.size() > edgeCounts.length)
+                edgeCounts = Arrays.copyOf(edgeCounts, edgeCounts.length * 2);
+            edgeCounts[sources.size() - 1] = count;
+        }
+
+        private void parseHeuristicLine(int start, int end) {
+            int colon = indexOf(':', start, end);
+            if (colon < 0)
+                throw malformed(start, end);
+            sources.add(symbols.intern(start, colon));
+            addEdge(null, parseDouble(colon + 2, end));
+        }
+
+        private void addEdge(String destination, double cost) {
+            if (edgeCount == costs.length) {
+                destinations = Arrays.copyOf(destinations, edgeCount * 2);
+                costs = Arrays.copyOf(costs, edgeCount * 2);
+            }
+
+            destinations[edgeCount] = destination;
+            costs[edgeCount] = cost;
+            edgeCount++;
+        }
+
+        private int indexOf(char c, int start, int end) {
+            for (int i = start; i < end; i++)
+                if (buffer.get(i) == c)
+                    return i;
+
+            return -1;
+        }
+
+        private double parseDouble(int start, int end) {
+            int i = start;
+            boolean negative = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+'))
+                negative = buffer.get(i++) == '-';
+
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = -1;
+
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b >= '0' && b <= '9') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (fractionDigits >= 0)
+                        fractionDigits++;
+                } else if (b == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else {
+                    break;
+                }
+            }
+
+            if (i != end || digits == 0 || digits > 15)
+                return Double.parseDouble(decode(start, end));
+
+            double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+
+        private String decode(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private IllegalArgumentException malformed(int start, int end) {
+            return new IllegalArgumentException("Malformed descriptor line: " + decode(start, end));
+        }
+    }
+
+    private static final class SymbolTable {
+        private final ByteBuffer buffer;
+        private int[] hashes = new int[1024];
+        private int[] starts = new int[1024];
+        private int[] lengths = new int[1024];
+        private String[] strings = new String[1024];
+        private int size = 0;
+
+        SymbolTable(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        String intern(int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++)
+                hash = 31 * hash + buffer.get(i);
+
+            int mask = strings.length - 1;
+            for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+                if (strings[slot] == null) {
+                    byte[] bytes = new byte[end - start];
+                    buffer.get(start, bytes);
+
+                    hashes[slot] = hash;
+                    starts[slot] = start;
+                    lengths[slot] = end - start;
+                    strings[slot] = new String(bytes, StandardCharsets.UTF_8);
+
+                    String string = strings[slot];
+                    if (++size * 2 > strings.length)
+                        grow();
+                    return string;
+                }
+
+                if (hashes[slot] == hash && lengths[slot] == end - start && equalBytes(starts[slot], start, end - start))
+                    return strings[slot];
+            }
+        }
+
+        private boolean equalBytes(int a, int b, int length) {
+            for (int i = 0; i < length; i++)
+                if (buffer.get(a + i) != buffer.get(b + i))
+                    return false;
+
+            return true;
+        }
+
+        private void grow() {
+            int[] oldHashes = hashes;
+            int[] oldStarts = starts;
+            int[] oldLengths = lengths;
+            String[] oldStrings = strings;
+
+            hashes = new int[oldStrings.length * 2];
+            starts = new int[oldStrings.length * 2];
+            lengths = new int[oldStrings.length * 2];
+            strings = new String[oldStrings.length * 2];
+            int mask = strings.length - 1;
+
+            for (int i = 0; i < oldStrings.length; i++) {
+                if (oldStrings[i] == null)
+                    continue;
+
+                int slot = mix(oldHashes[i]) & mask;
+                while (strings[slot] != null)
+                    slot = (slot + 1) & mask;
+
+                hashes[slot] = oldHashes[i];
+                starts[slot] = oldStarts[i];
+                lengths[slot] = oldLengths[i];
+                strings[slot] = oldStrings[i];
+            }
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
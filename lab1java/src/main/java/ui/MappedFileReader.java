@@ -0,0 +1,126 @@
+package ui;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+final class MappedFileReader {
+    private static final long WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final String description;
+    private final ByteBuffer scalar = ByteBuffer.allocate(Long.BYTES);
+    long position = 0;
+
+    MappedFileReader(FileChannel channel, String description) {
+        this.channel = channel;
+        this.description = description;
+    }
+
+    int readInt() throws IOException {
+        return readScalar(Integer.BYTES).getInt();
+    }
+
+    long readLong() throws IOException {
+        return readScalar(Long.BYTES).getLong();
+    }
+
+    byte readByte() throws IOException {
+        return readScalar(Byte.BYTES).get();
+    }
+
+    String[] readNames(long[] offsets, long totalLength) throws IOException {
+        String[] names = new String[offsets.length - 1];
+        long namesStart = position;
+
+        MappedByteBuffer window = null;
+        long windowStart = 0;
+        for (int id = 0; id < names.length; id++) {
+            long start = offsets[id];
+            int length = (int) (offsets[id + 1] - start);
+
+            if (window == null || start + length > windowStart + window.capacity()) {
+                windowStart = start;
+                window = map(namesStart + start, Math.min(Math.max(WINDOW_SIZE, length), totalLength - start));
+            }
+
+            byte[] bytes = new byte[length];
+            window.get((int) (start - windowStart), bytes);
+            names[id] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        position = namesStart + totalLength;
+        return names;
+    }
+
+    int[] readInts(int count) throws IOException {
+        int[] values = new int[count];
+        int perWindow = (int) (WINDOW_SIZE / Integer.BYTES);
+
+        for (int done = 0; done < count; done += perWindow) {
+            int length = Math.min(perWindow, count - done);
+            map(position, (long) length * Integer.BYTES).asIntBuffer().get(values, done, length);
+            position += (long) length * Integer.BYTES;
+        }
+
+        return values;
+    }
+
+    long[] readLongs(int count) throws IOException {
+        long[] values = new long[count];
+        int perWindow = (int) (WINDOW_SIZE / Long.BYTES);
+
+        for (int done = 0; done < count; done += perWindow) {
+            int length = Math.min(perWindow, count - done);
+            map(position, (long) length * Long.BYTES).asLongBuffer().get(values, done, length);
+            position += (long) length * Long.BYTES;
+        }
+
+        return values;
+    }
+
+    float[] readFloats(int count) throws IOException {
+        float[] values = new float[count];
+        int perWindow = (int) (WINDOW_SIZE / Float.BYTES);
+
+        for (int done = 0; done < count; done += perWindow) {
+            int length = Math.min(perWindow, count - done);
+            map(position, (long) length * Float.BYTES).asFloatBuffer().get(values, done, length);
+            position += (long) length * Float.BYTES;
+        }
+
+        return values;
+    }
+
+    double[] readDoubles(int count) throws IOException {
+        double[] values = new double[count];
+        int perWindow = (int) (WINDOW_SIZE / Double.BYTES);
+
+        for (int done = 0; done < count; done += perWindow) {
+            int length = Math.min(perWindow, count - done);
+            map(position, (long) length * Double.BYTES).asDoubleBuffer().get(values, done, length);
+            position += (long) length * Double.BYTES;
+        }
+
+        return values;
+    }
+
+    private ByteBuffer readScalar(int length) throws IOException {
+        scalar.clear().limit(length);
+        while (scalar.hasRemaining())
+            if (channel.read(scalar, position + scalar.position()) < 0)
+                throw new IOException("Truncated " + description);
+
+        position += length;
+        return scalar.flip();
+    }
+
+    private MappedByteBuffer map(long start, long length) throws IOException {
+        if (start + length > channel.size())
+            throw new IOException("Truncated " + description);
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+    }
+}
@@ -11,13 +11,13 @@ public class Node {
         this(state, null, 0);
     }
 
-    private Node(String state, Node parent, double accumulatedCost) {
+    Node(String state, Node parent, double accumulatedCost) {
         this.state = Objects.requireNonNull(state);
         this.parent = parent;
         this.accumulatedCost = accumulatedCost;
     }
 
-    public Node constructChild(StateSpace.Successor successor) {
+    public Node constructChild(SearchProblem.Successor successor) {
         return new Node(successor.destination, this, accumulatedCost + successor.cost);
     }
 
@@ -31,6 +31,6 @@ public class Node {
 
     @Override
     public int hashCode() {
-        return Objects.hash(state);
+        return state.hashCode();
     }
 }
@@ -0,0 +1,107 @@
+package ui;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+final class NodeStore {
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final Map<String, Integer> stateIds = new HashMap<>();
+    private String[] stateNames = new String[16];
+    private int stateCount = 0;
+
+    private int[][] states = new int[4][];
+    private int[][] parents = new int[4][];
+    private double[][] costs = new double[4][];
+    private int size = 0;
+
+    int findState(String state) {
+        Integer id = stateIds.get(state);
+        return id != null ? id : -1;
+    }
+
+    int addState(String state) {
+        if (stateCount == stateNames.length)
+            stateNames = Arrays.copyOf(stateNames, stateCount * 2);
+
+        stateNames[stateCount] = state;
+        stateIds.put(state, stateCount);
+        return stateCount++;
+    }
+
+    int getStateCount() {
+        return stateCount;
+    }
+
+    String getStateName(int state) {
+        return stateNames[state];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int add(int state, int parent, double cost) {
+        int chunk = size >>> CHUNK_SHIFT;
+        if (chunk == states.length) {
+            states = Arrays.copyOf(states, chunk * 2);
+            parents = Arrays.copyOf(parents, chunk * 2);
+            costs = Arrays.copyOf(costs, chunk * 2);
+        }
+        if (states[chunk] == null) {
+            states[chunk] = new int[CHUNK_SIZE];
+            parents[chunk] = new int[CHUNK_SIZE];
+            costs[chunk] = new double[CHUNK_SIZE];
+        }
+
+        int offset = size & CHUNK_MASK;
+        states[chunk][offset] = state;
+        parents[chunk][offset] = parent;
+        costs[chunk][offset] = cost;
+        return size++;
+    }
+
+    int getState(int node) {
+        return states[node >>> CHUNK_SHIFT][node & CHUNK_MASK];
+    }
+
+    int getParent(int node) {
+        return parents[node >>> CHUNK_SHIFT][node & CHUNK_MASK];
+    }
+
+    double getCost(int node) {
+        return costs[node >>> CHUNK_SHIFT][node & CHUNK_MASK];
+    }
+
+    String getName(int node) {
+        return stateNames[getState(node)];
+    }
+
+    void setParent(int node, int parent, double cost) {
+        parents[node >>> CHUNK_SHIFT][node & CHUNK_MASK] = parent;
+        costs[node >>> CHUNK_SHIFT][node & CHUNK_MASK] = cost;
+    }
+
+    int[] getPath(int node) {
+        int length = 0;
+        for (int n = node; n != -1; n = getParent(n))
+            length++;
+
+        int[] path = new int[length];
+        for (int n = node; n != -1; n = getParent(n))
+            path[--length] = n;
+
+        return path;
+    }
+
+    Node toNode(int node) {
+        Node result = null;
+        for (int n : getPath(node))
+            result = new Node(getName(n), result, getCost(n));
+
+        return result;
+    }
+}
@@ -0,0 +1,181 @@
+package ui;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+final class NodeStoreBucketQueue implements NodeStoreOpenList {
+    private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+    private final NodeStore nodes;
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private long[] keys = new long[0];
+    private int[] positions = new int[0];
+    private long current = 0;
+    private int size = 0;
+
+    NodeStoreBucketQueue(NodeStore nodes, int maxEdgeCost) {
+        if (maxEdgeCost < 0)
+            throw new IllegalArgumentException("The maximum edge cost must not be negative");
+
+        this.nodes = nodes;
+        buckets = new int[maxEdgeCost + 1][];
+        bucketSizes = new int[maxEdgeCost + 1];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int state) {
+        return state < positions.length && positions[state] != -1 ? buckets[bucket(keys[state])][positions[state]] : -1;
+    }
+
+    @Override
+    public void add(int node, double priority) {
+        int state = nodes.getState(node);
+        if (get(state) != -1)
+            throw new IllegalStateException("State " + nodes.getStateName(state) + " is already in the queue");
+
+        if (state >= positions.length) {
+            int length = positions.length;
+            int capacity = Math.max(nodes.getStateCount(), length * 2);
+            positions = Arrays.copyOf(positions, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            Arrays.fill(positions, length, capacity, -1);
+        }
+
+        long key = key(priority);
+        if (size == 0 && (key < current || key - current >= buckets.length))
+            current = key;
+
+        insert(node, key);
+        size++;
+    }
+
+    @Override
+    public void update(int node, double priority) {
+        int state = nodes.getState(node);
+        if (get(state) == -1)
+            throw new NoSuchElementException("State " + nodes.getStateName(state) + " is not in the queue");
+
+        long key = key(priority);
+        if (key > keys[state])
+            throw new IllegalArgumentException("The priority of state " + nodes.getStateName(state) +
+                    " can only decrease");
+
+        delete(state);
+        insert(node, key);
+    }
+
+    @Override
+    public int remove() {
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        while (bucketSizes[bucket(current)] == 0)
+            current++;
+
+        int first = buckets[bucket(current)][0];
+        delete(nodes.getState(first));
+        size--;
+
+        return first;
+    }
+
+    private long key(double priority) {
+        long key = (long) priority;
+        if (key != priority || key < 0)
+            throw new IllegalArgumentException("Priority " + priority + " is not a non-negative integer");
+
+        return key;
+    }
+
+    private int bucket(long key) {
+        return (int) (key % buckets.length);
+    }
+
+    private void insert(int node, long key) {
+        if (key < current || key - current >= buckets.length)
+            throw new IllegalArgumentException("Priority " + key + " is outside the monotone bucket range");
+
+        keys[nodes.getState(node)] = key;
+
+        int bucket = bucket(key);
+        if (buckets[bucket] == null)
+            buckets[bucket] = new int[INITIAL_BUCKET_CAPACITY];
+        else if (bucketSizes[bucket] == buckets[bucket].length)
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], bucketSizes[bucket] * 2);
+
+        int position = bucketSizes[bucket]++;
+        place(bucket, node, position);
+        siftUp(bucket, position);
+    }
+
+    private void delete(int state) {
+        int bucket = bucket(keys[state]);
+        int position = positions[state];
+        positions[state] = -1;
+
+        int last = --bucketSizes[bucket];
+        if (position == last)
+            return;
+
+        place(bucket, buckets[bucket][last], position);
+        if (position > 0 && less(bucket, position, (position - 1) / 2))
+            siftUp(bucket, position);
+        else
+            siftDown(bucket, position);
+    }
+
+    private void place(int bucket, int node, int position) {
+        buckets[bucket][position] = node;
+        positions[nodes.getState(node)] = position;
+    }
+
+    private boolean less(int bucket, int i, int j) {
+        return nodes.getName(buckets[bucket][i]).compareTo(nodes.getName(buckets[bucket][j])) < 0;
+    }
+
+    private void swap(int bucket, int i, int j) {
+        int node = buckets[bucket][i];
+        place(bucket, buckets[bucket][j], i);
+        place(bucket, node, j);
+    }
+
+    private void siftUp(int bucket, int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!less(bucket, position, parent))
+                break;
+
+            swap(bucket, position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int bucket, int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+
+            if (left < bucketSizes[bucket] && less(bucket, left, smallest))
+                smallest = left;
+            if (right < bucketSizes[bucket] && less(bucket, right, smallest))
+                smallest = right;
+            if (smallest == position)
+                break;
+
+            swap(bucket, position, smallest);
+            position = smallest;
+        }
+    }
+}
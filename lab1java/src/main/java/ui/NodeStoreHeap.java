@@ -0,0 +1,140 @@
+package ui;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+final class NodeStoreHeap implements NodeStoreOpenList {
+    private final NodeStore nodes;
+    private int[] heap = new int[16];
+    private double[] priorities = new double[16];
+    private int[] positions = new int[0];
+    private int size = 0;
+
+    NodeStoreHeap(NodeStore nodes) {
+        this.nodes = nodes;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int state) {
+        return state < positions.length && positions[state] != -1 ? heap[positions[state]] : -1;
+    }
+
+    double peekPriority() {
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        return priorities[0];
+    }
+
+    @Override
+    public void add(int node, double priority) {
+        int state = nodes.getState(node);
+        if (get(state) != -1)
+            throw new IllegalStateException("State " + nodes.getStateName(state) + " is already in the heap");
+
+        if (state >= positions.length) {
+            int length = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(nodes.getStateCount(), length * 2));
+            Arrays.fill(positions, length, positions.length, -1);
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+
+        place(node, priority, size++);
+        siftUp(size - 1);
+    }
+
+    @Override
+    public void update(int node, double priority) {
+        int state = nodes.getState(node);
+        if (get(state) == -1)
+            throw new NoSuchElementException("State " + nodes.getStateName(state) + " is not in the heap");
+
+        int position = positions[state];
+        double oldPriority = priorities[position];
+        place(node, priority, position);
+
+        if (priority < oldPriority)
+            siftUp(position);
+        else if (priority > oldPriority)
+            siftDown(position);
+    }
+
+    @Override
+    public int remove() {
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        int first = heap[0];
+        positions[nodes.getState(first)] = -1;
+
+        size--;
+        if (size > 0) {
+            place(heap[size], priorities[size], 0);
+            siftDown(0);
+        }
+
+        return first;
+    }
+
+    private void place(int node, double priority, int position) {
+        heap[position] = node;
+        priorities[position] = priority;
+        positions[nodes.getState(node)] = position;
+    }
+
+    private boolean less(int i, int j) {
+        if (priorities[i] == priorities[j])
+            return nodes.getName(heap[i]).compareTo(nodes.getName(heap[j])) < 0;
+
+        return priorities[i] < priorities[j];
+    }
+
+    private void swap(int i, int j) {
+        int node = heap[i];
+        double priority = priorities[i];
+        place(heap[j], priorities[j], i);
+        place(node, priority, j);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!less(position, parent))
+                break;
+
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+
+            if (left < size && less(left, smallest))
+                smallest = left;
+            if (right < size && less(right, smallest))
+                smallest = right;
+            if (smallest == position)
+                break;
+
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+}
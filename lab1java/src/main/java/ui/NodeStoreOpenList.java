@@ -0,0 +1,22 @@
+package ui;
+
+interface NodeStoreOpenList {
+    boolean isEmpty();
+
+    int size();
+
+    int get(int state);
+
+    void add(int node, double priority);
+
+    void update(int node, double priority);
+
+    int remove();
+
+    static NodeStoreOpenList forCosts(NodeStore nodes, SearchProblem problem) {
+        if (problem.getIntegralCostBound() != -1)
+            return new NodeStoreBucketQueue(nodes, problem.getIntegralCostBound());
+
+        return new NodeStoreHeap(nodes);
+    }
+}
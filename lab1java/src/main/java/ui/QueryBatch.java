@@ -0,0 +1,171 @@
+package ui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+public class QueryBatch {
+    private static final int CACHED_TREES = 64;
+    private static final int PENDING_QUERIES_PER_THREAD = 256;
+
+    private final StateSpace.CompactGraph graph;
+    private final GoalSet defaultGoals;
+    private final Map<GoalSet, CompletableFuture<ShortestPaths>> trees =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<GoalSet, CompletableFuture<ShortestPaths>> eldest) {
+                    return size() > CACHED_TREES;
+                }
+            };
+    private long treeCount = 0;
+
+    public QueryBatch(StateSpace stateSpace) {
+        graph = stateSpace.getCompactGraph();
+
+        int[] goals = new int[graph.getStateCount()];
+        int goalCount = 0;
+        for (int id = 0; id < graph.getStateCount(); id++)
+            if (graph.goalStates[id])
+                goals[goalCount++] = id;
+        defaultGoals = new GoalSet(Arrays.copyOf(goals, goalCount));
+    }
+
+    public long answer(BufferedReader in, PrintWriter out, PrintWriter errors, int threadCount) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        Deque<CompletableFuture<String>> pending = new ArrayDeque<>();
+        long queryCount = 0;
+
+        try {
+            int lineNumber = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String[] tokens = line.split("\\s+");
+                int start;
+                GoalSet goals;
+                try {
+                    start = graph.getStateId(tokens[0]);
+                    goals = tokens.length == 1 ? defaultGoals : goalSet(tokens);
+                } catch (NoSuchElementException e) {
+                    errors.println("Invalid query on line " + lineNumber + ": " + e.getMessage());
+                    continue;
+                }
+
+                String header = String.join(" ", tokens);
+                pending.add(CompletableFuture.supplyAsync(() -> answer(header, start, goals), pool));
+                queryCount++;
+
+                while (pending.size() > threadCount * PENDING_QUERIES_PER_THREAD)
+                    out.print(pending.remove().join());
+            }
+
+            while (!pending.isEmpty())
+                out.print(pending.remove().join());
+        } finally {
+            pool.shutdown();
+        }
+
+        out.flush();
+        return queryCount;
+    }
+
+    public long getTreeCount() {
+        return treeCount;
+    }
+
+    private GoalSet goalSet(String[] tokens) {
+        int[] goals = new int[tokens.length - 1];
+        for (int i = 1; i < tokens.length; i++)
+            goals[i - 1] = graph.getStateId(tokens[i]);
+        Arrays.sort(goals);
+
+        return new GoalSet(Arrays.stream(goals).distinct().toArray());
+    }
+
+    private String answer(String header, int start, GoalSet goals) {
+        ShortestPaths tree = tree(goals);
+        StringBuilder result = new StringBuilder("# QUERY ").append(header).append('\n');
+
+        if (tree.distances[start] == Double.POSITIVE_INFINITY)
+            return result.append("[FOUND_SOLUTION]: no\n").toString();
+
+        List<String> path = new ArrayList<>();
+        double cost = 0;
+        int state = start;
+        path.add(graph.stateNames[state]);
+        while (tree.parents[state] != -1) {
+            int next = tree.parents[state];
+            cost += stepCost(state, next);
+            path.add(graph.stateNames[next]);
+            state = next;
+        }
+
+        return result.append("[FOUND_SOLUTION]: yes\n")
+                .append("[PATH_LENGTH]: ").append(path.size()).append('\n')
+                .append(String.format("[TOTAL_COST]: %.1f\n", cost))
+                .append("[PATH]: ").append(String.join(" => ", path)).append('\n')
+                .toString();
+    }
+
+    private ShortestPaths tree(GoalSet goals) {
+        CompletableFuture<ShortestPaths> future;
+        boolean owner = false;
+        synchronized (trees) {
+            future = trees.get(goals);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                trees.put(goals, future);
+                treeCount++;
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            try {
+                future.complete(ShortestPaths.compute(graph, goals.states, true));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        return future.join();
+    }
+
+    private double stepCost(int from, int to) {
+        double cost = Double.POSITIVE_INFINITY;
+        for (int e = graph.successorOffsets[from]; e < graph.successorOffsets[from + 1]; e++)
+            if (graph.successorTargets[e] == to)
+                cost = Math.min(cost, graph.successorCosts[e]);
+
+        return cost;
+    }
+
+    private static final class GoalSet {
+        private final int[] states;
+        private final int hash;
+
+        private GoalSet(int[] states) {
+            this.states = states;
+            this.hash = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return Arrays.equals(states, ((GoalSet) o).states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
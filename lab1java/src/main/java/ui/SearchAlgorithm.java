@@ -4,15 +4,27 @@ import java.util.Objects;
 
 @FunctionalInterface
 public interface SearchAlgorithm {
-    SearchResult search(StateSpace stateSpace, Heuristic heuristic);
+    SearchResult search(SearchProblem stateSpace, Heuristic heuristic, SearchMetrics metrics);
+
+    default SearchResult search(SearchProblem stateSpace, Heuristic heuristic) {
+        return search(stateSpace, heuristic, new SearchMetrics());
+    }
 
     class SearchResult {
         public final Node node;
         public final int visitedCount;
+        public final int reexpandedCount;
+        public final SearchMetrics metrics;
+
+        SearchResult(Node node, int visitedCount, SearchMetrics metrics) {
+            this(node, visitedCount, 0, metrics);
+        }
 
-        SearchResult(Node node, int visitedCount) {
+        SearchResult(Node node, int visitedCount, int reexpandedCount, SearchMetrics metrics) {
             this.node = Objects.requireNonNull(node);
             this.visitedCount = visitedCount;
+            this.reexpandedCount = reexpandedCount;
+            this.metrics = Objects.requireNonNull(metrics);
         }
     }
 }
@@ -1,118 +1,616 @@
 package ui;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 public final class SearchAlgorithms {
     private SearchAlgorithms() {}
 
-    public static final SearchAlgorithm BREADTH_FIRST_SEARCH = ((stateSpace, heuristic) -> {
-        Queue<Node> open = new LinkedList<>();
-        Set<String> opened = new HashSet<>();
+    public static final SearchAlgorithm BREADTH_FIRST_SEARCH = ((stateSpace, heuristic, metrics) -> {
+        NodeStore nodes = new NodeStore();
+        nodes.add(nodes.addState(stateSpace.getInitialState()), -1, 0);
+        int openHead = 0;
+        metrics.observeOpenSize(nodes.size() - openHead);
 
-        Node initialNode = new Node(stateSpace.getInitialState());
-        open.add(initialNode);
-        opened.add(initialNode.state);
+        while (openHead < nodes.size()) {
+            int n = openHead++;
+            String state = nodes.getName(n);
 
-        while (!open.isEmpty()) {
-            Node n = open.remove();
+            if (stateSpace.isGoalState(state))
+                return new SearchAlgorithm.SearchResult(nodes.toNode(n), openHead, metrics);
 
-            if (stateSpace.isGoalState(n.state))
-                return new SearchAlgorithm.SearchResult(n, opened.size() - open.size());
+            metrics.expandedCount++;
+            for (SearchProblem.Successor m : stateSpace.getSuccessors(state)) {
+                metrics.generatedCount++;
+                if (nodes.findState(m.destination) == -1)
+                    nodes.add(nodes.addState(m.destination), n, nodes.getCost(n) + m.cost);
+                else
+                    metrics.duplicateCount++;
+            }
 
-            for (StateSpace.Successor m : stateSpace.getSuccessors(n.state))
-                if (opened.add(m.destination))
-                    open.add(n.constructChild(m));
+            metrics.observeOpenSize(nodes.size() - openHead);
+            metrics.observeClosedSize(openHead);
         }
 
         return null;
     });
 
-    public static final SearchAlgorithm UNIFORM_COST_SEARCH = ((stateSpace, heuristic) -> {
-        PriorityQueue<Node> open = new PriorityQueue<>((node1, node2) -> {
-            if (node1.accumulatedCost == node2.accumulatedCost)
-                return node1.state.compareTo(node2.state);
+    public static final SearchAlgorithm UNIFORM_COST_SEARCH = ((stateSpace, heuristic, metrics) -> {
+        NodeStore nodes = new NodeStore();
+        NodeStoreOpenList open = NodeStoreOpenList.forCosts(nodes, stateSpace);
+        open.add(nodes.add(nodes.addState(stateSpace.getInitialState()), -1, 0), 0);
+        metrics.observeOpenSize(open.size());
+
+        boolean[] closed = new boolean[0];
+        int closedCount = 0;
+
+        while (!open.isEmpty()) {
+            int n = open.remove();
+            int state = nodes.getState(n);
+            if (state >= closed.length)
+                closed = Arrays.copyOf(closed, Math.max(nodes.getStateCount(), closed.length * 2));
+            closed[state] = true;
+            closedCount++;
+
+            String name = nodes.getStateName(state);
+            if (stateSpace.isGoalState(name))
+                return new SearchAlgorithm.SearchResult(nodes.toNode(n), closedCount, metrics);
 
-            return Double.compare(node1.accumulatedCost, node2.accumulatedCost);
-        });
-        open.add(new Node(stateSpace.getInitialState()));
+            metrics.expandedCount++;
+            for (SearchProblem.Successor s : stateSpace.getSuccessors(name)) {
+                metrics.generatedCount++;
+                int m = nodes.findState(s.destination);
+                if (m != -1 && m < closed.length && closed[m]) {
+                    metrics.duplicateCount++;
+                    continue;
+                }
 
-        Set<String> closed = new HashSet<>();
+                double cost = nodes.getCost(n) + s.cost;
+                int mPrime = m != -1 ? open.get(m) : -1;
+
+                if (mPrime == -1) {
+                    open.add(nodes.add(m != -1 ? m : nodes.addState(s.destination), n, cost), cost);
+                    continue;
+                }
+
+                metrics.duplicateCount++;
+                if (cost < nodes.getCost(mPrime)) {
+                    nodes.setParent(mPrime, n, cost);
+                    open.update(mPrime, cost);
+                }
+            }
+
+            metrics.observeOpenSize(open.size());
+            metrics.observeClosedSize(closedCount);
+        }
+
+        return null;
+    });
+
+    public static final SearchAlgorithm A_STAR_SEARCH = ((stateSpace, heuristic, metrics) -> {
+        NodeStore nodes = new NodeStore();
+        NodeStoreHeap open = new NodeStoreHeap(nodes);
+        String initialState = stateSpace.getInitialState();
+        open.add(nodes.add(nodes.addState(initialState), -1, 0), heuristic.getEstimatedCost(initialState));
+        metrics.heuristicLookupCount++;
+        metrics.observeOpenSize(open.size());
+
+        double[] closedCosts = new double[0];
+        int closedCount = 0;
 
         while (!open.isEmpty()) {
-            Node n = open.remove();
+            int n = open.remove();
+            int state = nodes.getState(n);
+            if (state >= closedCosts.length) {
+                int length = closedCosts.length;
+                closedCosts = Arrays.copyOf(closedCosts, Math.max(nodes.getStateCount(), length * 2));
+                Arrays.fill(closedCosts, length, closedCosts.length, Double.NaN);
+            }
+            closedCosts[state] = nodes.getCost(n);
+            closedCount++;
 
-            if (!closed.add(n.state))
-                continue;
+            String name = nodes.getStateName(state);
+            if (stateSpace.isGoalState(name))
+                return new SearchAlgorithm.SearchResult(nodes.toNode(n), closedCount, metrics);
 
-            if (stateSpace.isGoalState(n.state))
-                return new SearchAlgorithm.SearchResult(n, closed.size());
+            metrics.expandedCount++;
+            for (SearchProblem.Successor s : stateSpace.getSuccessors(name)) {
+                metrics.generatedCount++;
+                double cost = nodes.getCost(n) + s.cost;
+                int m = nodes.findState(s.destination);
+                int mPrime = m != -1 ? open.get(m) : -1;
+
+                if (mPrime != -1) {
+                    metrics.duplicateCount++;
+                    if (nodes.getCost(mPrime) < cost)
+                        continue;
 
-            for (StateSpace.Successor m : stateSpace.getSuccessors(n.state)) {
-                if (closed.contains(m.destination))
+                    nodes.setParent(mPrime, n, cost);
+                    open.update(mPrime, cost + heuristic.getEstimatedCost(s.destination));
+                    metrics.heuristicLookupCount++;
                     continue;
+                }
+
+                if (m != -1 && m < closedCosts.length && !Double.isNaN(closedCosts[m])) {
+                    metrics.duplicateCount++;
+                    if (closedCosts[m] <= cost)
+                        continue;
+
+                    closedCosts[m] = Double.NaN;
+                    closedCount--;
+                    metrics.reopenedCount++;
+                }
 
-                open.add(n.constructChild(m));
+                open.add(nodes.add(m != -1 ? m : nodes.addState(s.destination), n, cost),
+                        cost + heuristic.getEstimatedCost(s.destination));
+                metrics.heuristicLookupCount++;
             }
+
+            metrics.observeOpenSize(open.size());
+            metrics.observeClosedSize(closedCount);
         }
 
         return null;
     });
 
-    public static final SearchAlgorithm A_STAR_SEARCH = ((stateSpace, heuristic) -> {
-        Comparator<Node> nodeComparator = (node1, node2) -> {
-            double estCost1 = node1.accumulatedCost + heuristic.getEstimatedCost(node1.state);
-            double estCost2 = node2.accumulatedCost + heuristic.getEstimatedCost(node2.state);
+    public static final SearchAlgorithm COMPACT_BREADTH_FIRST_SEARCH = ((stateSpace, heuristic, metrics) -> {
+        StateSpace.CompactGraph graph = StateSpace.explore(stateSpace).getCompactGraph();
+        int stateCount = graph.getStateCount();
 
-            if (estCost1 == estCost2)
-                return node1.state.compareTo(node2.state);
+        int[] open = new int[stateCount];
+        int openHead = 0;
+        int openTail = 0;
+        boolean[] opened = new boolean[stateCount];
+        int[] parents = new int[stateCount];
+        double[] parentCosts = new double[stateCount];
 
-            return Double.compare(estCost1, estCost2);
-        };
+        open[openTail++] = graph.initialState;
+        opened[graph.initialState] = true;
+        parents[graph.initialState] = -1;
+        metrics.observeOpenSize(openTail - openHead);
 
-        Map<String, Node> openNodes = new HashMap<>();
-        TreeMap<Node, Node> open = new TreeMap<>(nodeComparator);
-        Node initialNode = new Node(stateSpace.getInitialState());
+        while (openHead < openTail) {
+            int n = open[openHead++];
 
-        open.put(initialNode, initialNode);
-        openNodes.put(initialNode.state, initialNode);
+            if (graph.goalStates[n])
+                return compactResult(graph, n, parents, parentCosts, openHead, metrics);
 
-        Map<String, Double> closed = new HashMap<>();
+            metrics.expandedCount++;
+            for (int e = graph.successorOffsets[n]; e < graph.successorOffsets[n + 1]; e++) {
+                metrics.generatedCount++;
+                int m = graph.successorTargets[e];
+                if (opened[m]) {
+                    metrics.duplicateCount++;
+                    continue;
+                }
 
-        while (!open.isEmpty()) {
-            Node n = open.firstKey();
-            open.remove(n);
-            openNodes.remove(n.state);
+                opened[m] = true;
+                parents[m] = n;
+                parentCosts[m] = graph.successorCosts[e];
+                open[openTail++] = m;
+            }
 
-            closed.put(n.state, n.accumulatedCost);
+            metrics.observeOpenSize(openTail - openHead);
+            metrics.observeClosedSize(openHead);
+        }
 
-            if (stateSpace.isGoalState(n.state))
-                return new SearchAlgorithm.SearchResult(n, closed.size());
+        return null;
+    });
 
-            for (StateSpace.Successor s : stateSpace.getSuccessors(n.state)) {
-                Node m = n.constructChild(s);
+    public static final SearchAlgorithm COMPACT_UNIFORM_COST_SEARCH = ((stateSpace, heuristic, metrics) -> {
+        StateSpace.CompactGraph graph = StateSpace.explore(stateSpace).getCompactGraph();
+        return compactBestFirstSearch(graph, null, CompactOpenList.forCosts(graph), false, metrics);
+    });
+
+    public static final SearchAlgorithm COMPACT_A_STAR_SEARCH = ((stateSpace, heuristic, metrics) -> {
+        StateSpace.CompactGraph graph = StateSpace.explore(stateSpace).getCompactGraph();
+        return compactBestFirstSearch(graph, heuristic.getEstimatedCosts(graph),
+                new CompactNodeHeap(graph.getStateCount()), true, metrics);
+    });
+
+    public static final SearchAlgorithm BIDIRECTIONAL_BREADTH_FIRST_SEARCH = ((stateSpace, heuristic, metrics) -> {
+        StateSpace.CompactGraph graph = StateSpace.explore(stateSpace).getCompactGraph();
+        int stateCount = graph.getStateCount();
+
+        int[] forwardDepths = new int[stateCount];
+        int[] backwardDepths = new int[stateCount];
+        Arrays.fill(forwardDepths, -1);
+        Arrays.fill(backwardDepths, -1);
+        int[] forwardParents = new int[stateCount];
+        int[] backwardParents = new int[stateCount];
+        double[] forwardParentCosts = new double[stateCount];
+        double[] backwardParentCosts = new double[stateCount];
+
+        int[] forwardFrontier = {graph.initialState};
+        forwardDepths[graph.initialState] = 0;
+        forwardParents[graph.initialState] = -1;
+
+        int[] backwardFrontier = IntStream.range(0, stateCount).filter(id -> graph.goalStates[id]).toArray();
+        for (int goal : backwardFrontier) {
+            backwardDepths[goal] = 0;
+            backwardParents[goal] = -1;
+        }
+
+        if (graph.goalStates[graph.initialState])
+            return bidirectionalResult(graph, graph.initialState, forwardParents, forwardParentCosts,
+                    backwardParents, backwardParentCosts, 1, metrics);
 
-                if (openNodes.containsKey(m.state)) {
-                    Node mPrime = openNodes.get(m.state);
-                    if (mPrime.accumulatedCost < m.accumulatedCost) {
+        int visitedCount = 0;
+        while (forwardFrontier.length > 0 && backwardFrontier.length > 0) {
+            boolean forward = forwardFrontier.length <= backwardFrontier.length;
+            int[] frontier = forward ? forwardFrontier : backwardFrontier;
+            int[] depths = forward ? forwardDepths : backwardDepths;
+            int[] otherDepths = forward ? backwardDepths : forwardDepths;
+            int[] parents = forward ? forwardParents : backwardParents;
+            double[] parentCosts = forward ? forwardParentCosts : backwardParentCosts;
+            int[] offsets = forward ? graph.successorOffsets : graph.predecessorOffsets;
+            int[] targets = forward ? graph.successorTargets : graph.predecessorTargets;
+            double[] costs = forward ? graph.successorCosts : graph.predecessorCosts;
+
+            int[] next = new int[16];
+            int nextSize = 0;
+            int meeting = -1;
+            int meetingDepth = Integer.MAX_VALUE;
+
+            for (int n : frontier) {
+                visitedCount++;
+                metrics.expandedCount++;
+
+                for (int e = offsets[n]; e < offsets[n + 1]; e++) {
+                    metrics.generatedCount++;
+                    int m = targets[e];
+                    if (depths[m] != -1) {
+                        metrics.duplicateCount++;
                         continue;
-                    } else {
-                        open.remove(mPrime);
-                        openNodes.remove(mPrime.state);
                     }
+
+                    depths[m] = depths[n] + 1;
+                    parents[m] = n;
+                    parentCosts[m] = costs[e];
+
+                    if (otherDepths[m] != -1 && depths[m] + otherDepths[m] < meetingDepth) {
+                        meeting = m;
+                        meetingDepth = depths[m] + otherDepths[m];
+                    }
+
+                    if (nextSize == next.length)
+                        next = Arrays.copyOf(next, nextSize * 2);
+                    next[nextSize++] = m;
                 }
+            }
 
-                if (closed.containsKey(m.state)) {
-                    if (closed.get(m.state) < m.accumulatedCost)
-                        continue;
+            metrics.observeOpenSize(nextSize + (forward ? backwardFrontier.length : forwardFrontier.length));
+            metrics.observeClosedSize(visitedCount);
+
+            if (meeting != -1)
+                return bidirectionalResult(graph, meeting, forwardParents, forwardParentCosts,
+                        backwardParents, backwardParentCosts, visitedCount, metrics);
+
+            if (forward)
+                forwardFrontier = Arrays.copyOf(next, nextSize);
+            else
+                backwardFrontier = Arrays.copyOf(next, nextSize);
+        }
+
+        return null;
+    });
+
+    public static final SearchAlgorithm BIDIRECTIONAL_UNIFORM_COST_SEARCH = ((stateSpace, heuristic, metrics) -> {
+        StateSpace.CompactGraph graph = StateSpace.explore(stateSpace).getCompactGraph();
+        int stateCount = graph.getStateCount();
+
+        double[] forwardCosts = new double[stateCount];
+        double[] backwardCosts = new double[stateCount];
+        Arrays.fill(forwardCosts, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardCosts, Double.POSITIVE_INFINITY);
+        boolean[] forwardClosed = new boolean[stateCount];
+        boolean[] backwardClosed = new boolean[stateCount];
+        int[] forwardParents = new int[stateCount];
+        int[] backwardParents = new int[stateCount];
+        double[] forwardParentCosts = new double[stateCount];
+        double[] backwardParentCosts = new double[stateCount];
+
+        CompactNodeHeap forwardOpen = new CompactNodeHeap(stateCount);
+        CompactNodeHeap backwardOpen = new CompactNodeHeap(stateCount);
+
+        forwardCosts[graph.initialState] = 0;
+        forwardParents[graph.initialState] = -1;
+        forwardOpen.add(graph.initialState, 0);
+
+        for (int id = 0; id < stateCount; id++) {
+            if (graph.goalStates[id]) {
+                backwardCosts[id] = 0;
+                backwardParents[id] = -1;
+                backwardOpen.add(id, 0);
+            }
+        }
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        if (graph.goalStates[graph.initialState]) {
+            bestCost = 0;
+            meeting = graph.initialState;
+        }
+
+        int visitedCount = 0;
+        while (!forwardOpen.isEmpty() && !backwardOpen.isEmpty()) {
+            double forwardTop = forwardCosts[forwardOpen.peek()];
+            double backwardTop = backwardCosts[backwardOpen.peek()];
+            if (forwardTop + backwardTop >= bestCost)
+                break;
+
+            boolean forward = forwardTop <= backwardTop;
+            CompactNodeHeap open = forward ? forwardOpen : backwardOpen;
+            double[] costs = forward ? forwardCosts : backwardCosts;
+            double[] otherCosts = forward ? backwardCosts : forwardCosts;
+            boolean[] closed = forward ? forwardClosed : backwardClosed;
+            int[] parents = forward ? forwardParents : backwardParents;
+            double[] parentCosts = forward ? forwardParentCosts : backwardParentCosts;
+            int[] offsets = forward ? graph.successorOffsets : graph.predecessorOffsets;
+            int[] targets = forward ? graph.successorTargets : graph.predecessorTargets;
+            double[] edgeCosts = forward ? graph.successorCosts : graph.predecessorCosts;
+
+            int n = open.remove();
+            closed[n] = true;
+            visitedCount++;
+            metrics.expandedCount++;
+
+            for (int e = offsets[n]; e < offsets[n + 1]; e++) {
+                metrics.generatedCount++;
+                int m = targets[e];
+                if (closed[m]) {
+                    metrics.duplicateCount++;
+                    continue;
+                }
+
+                if (costs[m] != Double.POSITIVE_INFINITY)
+                    metrics.duplicateCount++;
+
+                double cost = costs[n] + edgeCosts[e];
+                if (cost < costs[m]) {
+                    if (open.contains(m))
+                        open.update(m, cost);
                     else
-                        closed.remove(m.state);
+                        open.add(m, cost);
+
+                    costs[m] = cost;
+                    parents[m] = n;
+                    parentCosts[m] = edgeCosts[e];
                 }
 
-                open.put(m, m);
-                openNodes.put(m.state, m);
+                if (costs[m] + otherCosts[m] < bestCost) {
+                    bestCost = costs[m] + otherCosts[m];
+                    meeting = m;
+                }
             }
+
+            metrics.observeOpenSize(forwardOpen.size() + backwardOpen.size());
+            metrics.observeClosedSize(visitedCount);
+        }
+
+        if (meeting == -1)
+            return null;
+
+        return bidirectionalResult(graph, meeting, forwardParents, forwardParentCosts,
+                backwardParents, backwardParentCosts, visitedCount, metrics);
+    });
+
+    public static final SearchAlgorithm ITERATIVE_DEEPENING_A_STAR_SEARCH = ((stateSpace, heuristic, metrics) -> {
+        NodeStore states = new NodeStore();
+        boolean[] expanded = new boolean[16];
+        boolean[] onPath = new boolean[16];
+        int visitedCount = 0;
+        int expansionCount = 0;
+
+        int[] pathStates = new int[16];
+        SearchProblem.Successor[][] pathSuccessors = new SearchProblem.Successor[16][];
+        int[] pathEdges = new int[16];
+        double[] pathCosts = new double[16];
+
+        String initialState = stateSpace.getInitialState();
+        int initial = states.addState(initialState);
+        double bound = heuristic.getEstimatedCost(initialState);
+        metrics.heuristicLookupCount++;
+
+        while (bound != Double.POSITIVE_INFINITY) {
+            double nextBound = Double.POSITIVE_INFINITY;
+
+            int depth = 0;
+            pathStates[0] = initial;
+            pathEdges[0] = -1;
+            pathCosts[0] = 0;
+            onPath[initial] = true;
+
+            while (depth >= 0) {
+                int n = pathStates[depth];
+
+                if (pathEdges[depth] == -1) {
+                    String name = states.getStateName(n);
+                    if (stateSpace.isGoalState(name)) {
+                        long start = System.nanoTime();
+                        Node node = new Node(states.getStateName(pathStates[0]));
+                        for (int i = 1; i <= depth; i++)
+                            node = new Node(states.getStateName(pathStates[i]), node, pathCosts[i]);
+                        metrics.pathReconstructionNanos += System.nanoTime() - start;
+
+                        return new SearchAlgorithm.SearchResult(node, visitedCount, expansionCount - visitedCount,
+                                metrics);
+                    }
+
+                    if (!expanded[n]) {
+                        expanded[n] = true;
+                        visitedCount++;
+                    } else {
+                        metrics.reopenedCount++;
+                    }
+                    expansionCount++;
+                    metrics.expandedCount++;
+                    metrics.observeOpenSize(depth + 1);
+                    pathSuccessors[depth] = stateSpace.getSuccessors(name).toArray(new SearchProblem.Successor[0]);
+                    pathEdges[depth] = 0;
+                }
+
+                int e = pathEdges[depth]++;
+                if (e >= pathSuccessors[depth].length) {
+                    onPath[n] = false;
+                    pathSuccessors[depth] = null;
+                    depth--;
+                    continue;
+                }
+
+                metrics.generatedCount++;
+                SearchProblem.Successor s = pathSuccessors[depth][e];
+                int m = states.findState(s.destination);
+                if (m != -1 && onPath[m]) {
+                    metrics.duplicateCount++;
+                    continue;
+                }
+
+                double cost = pathCosts[depth] + s.cost;
+                double estimatedCost = cost + heuristic.getEstimatedCost(s.destination);
+                metrics.heuristicLookupCount++;
+                if (estimatedCost > bound) {
+                    nextBound = Math.min(nextBound, estimatedCost);
+                    continue;
+                }
+
+                if (m == -1) {
+                    m = states.addState(s.destination);
+                    if (m == onPath.length) {
+                        onPath = Arrays.copyOf(onPath, m * 2);
+                        expanded = Arrays.copyOf(expanded, m * 2);
+                    }
+                }
+
+                depth++;
+                if (depth == pathStates.length) {
+                    pathStates = Arrays.copyOf(pathStates, depth * 2);
+                    pathSuccessors = Arrays.copyOf(pathSuccessors, depth * 2);
+                    pathEdges = Arrays.copyOf(pathEdges, depth * 2);
+                    pathCosts = Arrays.copyOf(pathCosts, depth * 2);
+                }
+                pathStates[depth] = m;
+                pathEdges[depth] = -1;
+                pathCosts[depth] = cost;
+                onPath[m] = true;
+            }
+
+            bound = nextBound;
         }
 
         return null;
     });
+
+    private static final byte UNSEEN = 0;
+    private static final byte OPEN = 1;
+    private static final byte CLOSED = 2;
+
+    private static SearchAlgorithm.SearchResult compactBestFirstSearch(StateSpace.CompactGraph graph,
+                                                                       double[] estimatedCosts,
+                                                                       CompactOpenList open,
+                                                                       boolean reopenClosed,
+                                                                       SearchMetrics metrics) {
+        int stateCount = graph.getStateCount();
+
+        byte[] status = new byte[stateCount];
+        double[] costs = new double[stateCount];
+        int[] parents = new int[stateCount];
+        double[] parentCosts = new double[stateCount];
+        int closedCount = 0;
+
+        status[graph.initialState] = OPEN;
+        parents[graph.initialState] = -1;
+        open.add(graph.initialState, estimatedCost(estimatedCosts, graph.initialState, metrics));
+        metrics.observeOpenSize(open.size());
+
+        while (!open.isEmpty()) {
+            int n = open.remove();
+
+            status[n] = CLOSED;
+            closedCount++;
+
+            if (graph.goalStates[n])
+                return compactResult(graph, n, parents, parentCosts, closedCount, metrics);
+
+            metrics.expandedCount++;
+            for (int e = graph.successorOffsets[n]; e < graph.successorOffsets[n + 1]; e++) {
+                metrics.generatedCount++;
+                int m = graph.successorTargets[e];
+                double cost = costs[n] + graph.successorCosts[e];
+
+                if (status[m] != UNSEEN)
+                    metrics.duplicateCount++;
+                if (status[m] == CLOSED && (!reopenClosed || costs[m] <= cost))
+                    continue;
+                if (status[m] == OPEN && (costs[m] < cost || costs[m] == cost && !reopenClosed))
+                    continue;
+
+                if (status[m] == CLOSED) {
+                    closedCount--;
+                    metrics.reopenedCount++;
+                }
+
+                costs[m] = cost;
+                parents[m] = n;
+                parentCosts[m] = graph.successorCosts[e];
+
+                if (status[m] == OPEN) {
+                    open.update(m, cost + estimatedCost(estimatedCosts, m, metrics));
+                } else {
+                    status[m] = OPEN;
+                    open.add(m, cost + estimatedCost(estimatedCosts, m, metrics));
+                }
+            }
+
+            metrics.observeOpenSize(open.size());
+            metrics.observeClosedSize(closedCount);
+        }
+
+        return null;
+    }
+
+    private static double estimatedCost(double[] estimatedCosts, int state, SearchMetrics metrics) {
+        if (estimatedCosts == null)
+            return 0;
+
+        metrics.heuristicLookupCount++;
+        return estimatedCosts[state];
+    }
+
+    private static SearchAlgorithm.SearchResult bidirectionalResult(StateSpace.CompactGraph graph, int meeting,
+                                                                    int[] forwardParents,
+                                                                    double[] forwardParentCosts,
+                                                                    int[] backwardParents,
+                                                                    double[] backwardParentCosts,
+                                                                    int visitedCount,
+                                                                    SearchMetrics metrics) {
+        Node node = compactResult(graph, meeting, forwardParents, forwardParentCosts, visitedCount, metrics).node;
+
+        long start = System.nanoTime();
+        for (int id = meeting; backwardParents[id] != -1; id = backwardParents[id])
+            node = new Node(graph.stateNames[backwardParents[id]], node, node.accumulatedCost + backwardParentCosts[id]);
+        metrics.pathReconstructionNanos += System.nanoTime() - start;
+
+        return new SearchAlgorithm.SearchResult(node, visitedCount, metrics);
+    }
+
+    static SearchAlgorithm.SearchResult compactResult(StateSpace.CompactGraph graph, int goal,
+                                                      int[] parents, double[] parentCosts,
+                                                      int visitedCount, SearchMetrics metrics) {
+        long start = System.nanoTime();
+        Deque<Integer> path = new ArrayDeque<>();
+        for (int id = goal; id != -1; id = parents[id])
+            path.push(id);
+
+        Node node = null;
+        for (int id : path) {
+            if (node == null)
+                node = new Node(graph.stateNames[id]);
+            else
+                node = new Node(graph.stateNames[id], node, node.accumulatedCost + parentCosts[id]);
+        }
+        metrics.pathReconstructionNanos += System.nanoTime() - start;
+
+        return new SearchAlgorithm.SearchResult(node, visitedCount, metrics);
+    }
 }
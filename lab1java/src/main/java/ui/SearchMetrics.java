@@ -0,0 +1,57 @@
+package ui;
+
+import java.util.Locale;
+
+public final class SearchMetrics {
+    public long expandedCount = 0;
+    public long generatedCount = 0;
+    public long duplicateCount = 0;
+    public long reopenedCount = 0;
+    public long peakOpenSize = 0;
+    public long peakClosedSize = 0;
+    public long heuristicLookupCount = 0;
+
+    public long loadNanos = 0;
+    public long searchNanos = 0;
+    public long pathReconstructionNanos = 0;
+
+    void observeOpenSize(long size) {
+        if (size > peakOpenSize)
+            peakOpenSize = size;
+    }
+
+    void observeClosedSize(long size) {
+        if (size > peakClosedSize)
+            peakClosedSize = size;
+    }
+
+    public String toText() {
+        return "[EXPANDED]: " + expandedCount + "\n" +
+                "[GENERATED]: " + generatedCount + "\n" +
+                "[DUPLICATES]: " + duplicateCount + "\n" +
+                "[REOPENED]: " + reopenedCount + "\n" +
+                "[PEAK_OPEN]: " + peakOpenSize + "\n" +
+                "[PEAK_CLOSED]: " + peakClosedSize + "\n" +
+                "[HEURISTIC_LOOKUPS]: " + heuristicLookupCount + "\n" +
+                "[LOAD_TIME_MS]: " + milliseconds(loadNanos) + "\n" +
+                "[SEARCH_TIME_MS]: " + milliseconds(searchNanos) + "\n" +
+                "[PATH_TIME_MS]: " + milliseconds(pathReconstructionNanos);
+    }
+
+    public String toJson() {
+        return "{\"expanded\": " + expandedCount +
+                ", \"generated\": " + generatedCount +
+                ", \"duplicates\": " + duplicateCount +
+                ", \"reopened\": " + reopenedCount +
+                ", \"peakOpen\": " + peakOpenSize +
+                ", \"peakClosed\": " + peakClosedSize +
+                ", \"heuristicLookups\": " + heuristicLookupCount +
+                ", \"loadTimeMs\": " + milliseconds(loadNanos) +
+                ", \"searchTimeMs\": " + milliseconds(searchNanos) +
+                ", \"pathTimeMs\": " + milliseconds(pathReconstructionNanos) + "}";
+    }
+
+    private static String milliseconds(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,52 @@
+package ui;
+
+import java.util.Collection;
+import java.util.Objects;
+
+public interface SearchProblem {
+    String getInitialState();
+
+    boolean isGoalState(String state);
+
+    Collection<Successor> getSuccessors(String state);
+
+    default int getIntegralCostBound() {
+        return -1;
+    }
+
+    default boolean hasPredecessors() {
+        return false;
+    }
+
+    default Collection<Successor> getPredecessors(String state) {
+        throw new UnsupportedOperationException("This state space does not generate predecessors");
+    }
+
+    final class Successor implements Comparable<Successor> {
+        public final String destination;
+        public final double cost;
+
+        public Successor(String destination, double cost) {
+            this.destination = Objects.requireNonNull(destination);
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Successor successor = (Successor) o;
+            return destination.equals(successor.destination);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(destination);
+        }
+
+        @Override
+        public int compareTo(Successor o) {
+            return destination.compareTo(o.destination);
+        }
+    }
+}
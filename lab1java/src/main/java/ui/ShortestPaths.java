@@ -0,0 +1,63 @@
+package ui;
+
+import java.util.Arrays;
+
+final class ShortestPaths {
+    final double[] distances;
+    final int[] parents;
+    final int[] settledOrder;
+    final int settledCount;
+
+    private ShortestPaths(double[] distances, int[] parents, int[] settledOrder, int settledCount) {
+        this.distances = distances;
+        this.parents = parents;
+        this.settledOrder = settledOrder;
+        this.settledCount = settledCount;
+    }
+
+    static ShortestPaths compute(StateSpace.CompactGraph graph, int[] sources, boolean backward) {
+        int[] offsets = backward ? graph.predecessorOffsets : graph.successorOffsets;
+        int[] targets = backward ? graph.predecessorTargets : graph.successorTargets;
+        double[] costs = backward ? graph.predecessorCosts : graph.successorCosts;
+
+        int stateCount = graph.getStateCount();
+        double[] distances = new double[stateCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int[] parents = new int[stateCount];
+        Arrays.fill(parents, -1);
+        boolean[] closed = new boolean[stateCount];
+        int[] settledOrder = new int[stateCount];
+        int settledCount = 0;
+
+        CompactOpenList open = CompactOpenList.forCosts(graph);
+        for (int source : sources) {
+            if (distances[source] == 0)
+                continue;
+
+            distances[source] = 0;
+            open.add(source, 0);
+        }
+
+        while (!open.isEmpty()) {
+            int n = open.remove();
+            closed[n] = true;
+            settledOrder[settledCount++] = n;
+
+            for (int e = offsets[n]; e < offsets[n + 1]; e++) {
+                int m = targets[e];
+                double distance = distances[n] + costs[e];
+                if (closed[m] || distance >= distances[m])
+                    continue;
+
+                if (distances[m] == Double.POSITIVE_INFINITY)
+                    open.add(m, distance);
+                else
+                    open.update(m, distance);
+                distances[m] = distance;
+                parents[m] = n;
+            }
+        }
+
+        return new ShortestPaths(distances, parents, settledOrder, settledCount);
+    }
+}
@@ -0,0 +1,281 @@
+package ui;
+
+import java.util.*;
+
+public class SimplifiedMemoryBoundedAStar implements SearchAlgorithm {
+    private final int maxNodes;
+
+    public SimplifiedMemoryBoundedAStar(int maxNodes) {
+        if (maxNodes < 2)
+            throw new IllegalArgumentException("The node budget must allow at least two nodes");
+
+        this.maxNodes = maxNodes;
+    }
+
+    @Override
+    public SearchResult search(SearchProblem stateSpace, Heuristic heuristic, SearchMetrics metrics) {
+        return new Run(stateSpace, heuristic, metrics).search();
+    }
+
+    private final class Run {
+        private final SearchProblem stateSpace;
+        private final Heuristic heuristic;
+        private final SearchMetrics metrics;
+        private final NodeStore states = new NodeStore();
+
+        private final TreeSet<TreeNode> open = new TreeSet<>();
+        private final TreeSet<TreeNode> leaves = new TreeSet<>();
+        private int nodeCount = 0;
+        private long serial = 0;
+
+        private boolean[] expanded = new boolean[16];
+        private int visitedCount = 0;
+        private int expansionCount = 0;
+
+        private Run(SearchProblem stateSpace, Heuristic heuristic, SearchMetrics metrics) {
+            this.stateSpace = stateSpace;
+            this.heuristic = heuristic;
+            this.metrics = metrics;
+        }
+
+        private SearchResult search() {
+            String initialState = stateSpace.getInitialState();
+            TreeNode root = new TreeNode(states.addState(initialState), null, 0,
+                    heuristic.getEstimatedCost(initialState));
+            metrics.heuristicLookupCount++;
+            insert(root);
+
+            while (!open.isEmpty()) {
+                TreeNode n = open.first();
+
+                if (n.estimatedCost == Double.POSITIVE_INFINITY)
+                    return null;
+
+                if (stateSpace.isGoalState(states.getStateName(n.state)))
+                    return result(n);
+
+                if (n.successors == null)
+                    n.successors = stateSpace.getSuccessors(states.getStateName(n.state))
+                                             .toArray(new SearchProblem.Successor[0]);
+
+                int end = n.successors.length;
+                if (n.nextEdge == end) {
+                    n.nextEdge = 0;
+                    n.forgottenCost = Double.POSITIVE_INFINITY;
+                }
+
+                if (n.nextEdge == 0) {
+                    if (!expanded[n.state]) {
+                        expanded[n.state] = true;
+                        visitedCount++;
+                    } else {
+                        metrics.reopenedCount++;
+                    }
+                    expansionCount++;
+                    metrics.expandedCount++;
+                }
+
+                skipToNextSuccessor(n);
+                if (n.nextEdge == end) {
+                    finishGeneration(n);
+                    continue;
+                }
+
+                SearchProblem.Successor successor = n.successors[n.nextEdge++];
+                int state = states.findState(successor.destination);
+                if (state == -1) {
+                    state = states.addState(successor.destination);
+                    if (state == expanded.length)
+                        expanded = Arrays.copyOf(expanded, state * 2);
+                }
+
+                TreeNode s = new TreeNode(state, n, n.cost + successor.cost, n.estimatedCost);
+                s.estimatedCost = Math.max(n.estimatedCost, s.cost + heuristic.getEstimatedCost(successor.destination));
+                metrics.generatedCount++;
+                metrics.heuristicLookupCount++;
+                if (!stateSpace.isGoalState(successor.destination) && s.depth >= maxNodes - 1)
+                    s.estimatedCost = Double.POSITIVE_INFINITY;
+
+                if (n.children.isEmpty())
+                    remove(leaves, n);
+                n.children.add(s);
+
+                skipToNextSuccessor(n);
+                if (n.nextEdge == end)
+                    finishGeneration(n);
+
+                if (nodeCount >= maxNodes)
+                    forgetWorstLeaf();
+
+                insert(s);
+                metrics.observeOpenSize(open.size());
+            }
+
+            return null;
+        }
+
+        private void skipToNextSuccessor(TreeNode n) {
+            while (n.nextEdge < n.successors.length) {
+                int m = states.findState(n.successors[n.nextEdge].destination);
+                if (m == -1 || !isOnPath(n, m) && !hasChild(n, m))
+                    return;
+
+                n.nextEdge++;
+                metrics.duplicateCount++;
+            }
+        }
+
+        private boolean isOnPath(TreeNode n, int state) {
+            for (TreeNode a = n; a != null; a = a.parent)
+                if (a.state == state)
+                    return true;
+
+            return false;
+        }
+
+        private boolean hasChild(TreeNode n, int state) {
+            for (TreeNode child : n.children)
+                if (child.state == state)
+                    return true;
+
+            return false;
+        }
+
+        private void finishGeneration(TreeNode n) {
+            if (n.forgottenCost == Double.POSITIVE_INFINITY)
+                remove(open, n);
+
+            backUp(n);
+        }
+
+        private void backUp(TreeNode n) {
+            while (n != null && n.nextEdge == n.successors.length) {
+                double estimatedCost = n.forgottenCost;
+                for (TreeNode child : n.children)
+                    estimatedCost = Math.min(estimatedCost, child.estimatedCost);
+
+                if (estimatedCost == n.estimatedCost)
+                    return;
+
+                setEstimatedCost(n, estimatedCost);
+                n = n.parent;
+            }
+        }
+
+        private void forgetWorstLeaf() {
+            TreeNode worst = null;
+            for (TreeNode leaf : leaves.descendingSet()) {
+                if (leaf.parent != null) {
+                    worst = leaf;
+                    break;
+                }
+            }
+
+            if (worst == null)
+                return;
+
+            remove(open, worst);
+            remove(leaves, worst);
+            nodeCount--;
+
+            TreeNode parent = worst.parent;
+            parent.children.remove(worst);
+            parent.forgottenCost = Math.min(parent.forgottenCost, worst.estimatedCost);
+
+            if (!parent.inOpen && parent.forgottenCost != Double.POSITIVE_INFINITY) {
+                open.add(parent);
+                parent.inOpen = true;
+            }
+            if (parent.children.isEmpty()) {
+                leaves.add(parent);
+                parent.inLeaves = true;
+            }
+        }
+
+        private void insert(TreeNode n) {
+            open.add(n);
+            n.inOpen = true;
+            leaves.add(n);
+            n.inLeaves = true;
+            nodeCount++;
+        }
+
+        private void remove(TreeSet<TreeNode> set, TreeNode n) {
+            if (set == open ? !n.inOpen : !n.inLeaves)
+                return;
+
+            set.remove(n);
+            if (set == open)
+                n.inOpen = false;
+            else
+                n.inLeaves = false;
+        }
+
+        private void setEstimatedCost(TreeNode n, double estimatedCost) {
+            if (n.inOpen)
+                open.remove(n);
+            if (n.inLeaves)
+                leaves.remove(n);
+
+            n.estimatedCost = estimatedCost;
+
+            if (n.inOpen)
+                open.add(n);
+            if (n.inLeaves)
+                leaves.add(n);
+        }
+
+        private SearchResult result(TreeNode goal) {
+            long start = System.nanoTime();
+            Deque<TreeNode> path = new ArrayDeque<>();
+            for (TreeNode n = goal; n != null; n = n.parent)
+                path.push(n);
+
+            Node node = null;
+            for (TreeNode n : path) {
+                if (node == null)
+                    node = new Node(states.getStateName(n.state));
+                else
+                    node = new Node(states.getStateName(n.state), node, n.cost);
+            }
+
+            metrics.pathReconstructionNanos += System.nanoTime() - start;
+
+            return new SearchResult(node, visitedCount, expansionCount - visitedCount, metrics);
+        }
+
+        private final class TreeNode implements Comparable<TreeNode> {
+            final int state;
+            final TreeNode parent;
+            final double cost;
+            final int depth;
+            final long id = serial++;
+            final List<TreeNode> children = new ArrayList<>(2);
+
+            double estimatedCost;
+            double forgottenCost = Double.POSITIVE_INFINITY;
+            SearchProblem.Successor[] successors = null;
+            int nextEdge = 0;
+            boolean inOpen = false;
+            boolean inLeaves = false;
+
+            TreeNode(int state, TreeNode parent, double cost, double estimatedCost) {
+                this.state = state;
+                this.parent = parent;
+                this.cost = cost;
+                this.depth = parent == null ? 0 : parent.depth + 1;
+                this.estimatedCost = estimatedCost;
+            }
+
+            @Override
+            public int compareTo(TreeNode o) {
+                if (estimatedCost != o.estimatedCost)
+                    return Double.compare(estimatedCost, o.estimatedCost);
+                if (depth != o.depth)
+                    return Integer.compare(o.depth, depth);
+
+                return Long.compare(id, o.id);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package ui;
+
+import java.util.*;
+
+public class SlidingPuzzle implements SearchProblem {
+    private static final char ROW_SEPARATOR = '/';
+    private static final char TILE_SEPARATOR = '_';
+
+    private final int width;
+    private final int height;
+    private final String initialState;
+    private final String goalState;
+
+    public SlidingPuzzle(String initialState) {
+        String[] rows = initialState.split(String.valueOf(ROW_SEPARATOR));
+        this.height = rows.length;
+        this.width = rows[0].split(String.valueOf(TILE_SEPARATOR)).length;
+
+        int[] tiles = parse(initialState);
+        if (width * height < 2)
+            throw new IllegalArgumentException("A puzzle needs at least two cells");
+
+        boolean[] seen = new boolean[tiles.length];
+        for (int tile : tiles) {
+            if (tile < 0 || tile >= tiles.length || seen[tile])
+                throw new IllegalArgumentException("Puzzle tiles must be a permutation of 0 to " + (tiles.length - 1));
+            seen[tile] = true;
+        }
+
+        int[] goal = new int[tiles.length];
+        for (int i = 0; i < goal.length - 1; i++)
+            goal[i] = i + 1;
+
+        this.initialState = format(tiles);
+        this.goalState = format(goal);
+    }
+
+    @Override
+    public String getInitialState() {
+        return initialState;
+    }
+
+    @Override
+    public boolean isGoalState(String state) {
+        return goalState.equals(Objects.requireNonNull(state));
+    }
+
+    @Override
+    public int getIntegralCostBound() {
+        return 1;
+    }
+
+    @Override
+    public List<Successor> getSuccessors(String state) {
+        int[] tiles = parse(state);
+
+        int blank = 0;
+        while (tiles[blank] != 0)
+            blank++;
+        int x = blank % width;
+        int y = blank / width;
+
+        List<Successor> successors = new ArrayList<>(4);
+        if (x > 0)
+            successors.add(slide(tiles, blank, blank - 1));
+        if (x < width - 1)
+            successors.add(slide(tiles, blank, blank + 1));
+        if (y > 0)
+            successors.add(slide(tiles, blank, blank - width));
+        if (y < height - 1)
+            successors.add(slide(tiles, blank, blank + width));
+
+        Collections.sort(successors);
+        return successors;
+    }
+
+    @Override
+    public boolean hasPredecessors() {
+        return true;
+    }
+
+    @Override
+    public List<Successor> getPredecessors(String state) {
+        return getSuccessors(state);
+    }
+
+    public Heuristic getHeuristic() {
+        return new Heuristic() {
+            @Override
+            public double getEstimatedCost(String state) {
+                int[] tiles = parse(state);
+                int distance = 0;
+
+                for (int i = 0; i < tiles.length; i++) {
+                    if (tiles[i] == 0)
+                        continue;
+
+                    int target = tiles[i] - 1;
+                    distance += Math.abs(i % width - target % width) + Math.abs(i / width - target / width);
+                }
+
+                return distance;
+            }
+
+            @Override
+            boolean hasEstimatedCost(String state) {
+                return true;
+            }
+        };
+    }
+
+    public String getHeuristicName() {
+        return "manhattan";
+    }
+
+    private Successor slide(int[] tiles, int blank, int tile) {
+        int[] moved = tiles.clone();
+        moved[blank] = moved[tile];
+        moved[tile] = 0;
+        return new Successor(format(moved), 1);
+    }
+
+    private int[] parse(String state) {
+        int[] tiles = new int[width * height];
+        int count = 0;
+        int value = -1;
+
+        for (int i = 0; i <= state.length(); i++) {
+            char c = i < state.length() ? state.charAt(i) : ROW_SEPARATOR;
+
+            if (c == ROW_SEPARATOR || c == TILE_SEPARATOR) {
+                if (value == -1 || count == tiles.length || c == ROW_SEPARATOR && (count + 1) % width != 0)
+                    throw new IllegalArgumentException("Malformed puzzle state " + state);
+
+                tiles[count++] = value;
+                value = -1;
+            } else if (c >= '0' && c <= '9') {
+                value = (value == -1 ? 0 : value * 10) + (c - '0');
+            } else {
+                throw new IllegalArgumentException("Malformed puzzle state " + state);
+            }
+        }
+
+        if (count != tiles.length)
+            throw new IllegalArgumentException("Malformed puzzle state " + state);
+
+        return tiles;
+    }
+
+    private String format(int[] tiles) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < tiles.length; i++) {
+            if (i > 0)
+                sb.append(i % width == 0 ? ROW_SEPARATOR : TILE_SEPARATOR);
+            sb.append(tiles[i]);
+        }
+
+        return sb.toString();
+    }
+}
@@ -1,24 +1,104 @@
 package ui;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 public class Solution {
     private static final String USAGE_STRING = """
             Usage:
-                java ui.Solution --alg algorithm --ss path_to_state_space [--h path_to_heuristic]
+                java ui.Solution --alg algorithm --ss path_to_state_space [--h path_to_heuristic] [--compact] [--mmap]
+                        [--max-nodes count] [--threads count] [--weight weight] [--epsilon bound]
+                        [--time-limit milliseconds] [--stats [text|json]]
                     Finds a solution in the state space.
+                    With --compact, the search runs over integer state IDs and array adjacency lists.
+                    With --mmap, the descriptors are memory-mapped and parsed in parallel.
                     Supported algorithms:
                         bfs   Breadth-first search
                         ucs   Uniform-cost search
                         astar A* search; requires a heuristic
+                        bibfs Bidirectional breadth-first search
+                        biucs Bidirectional uniform-cost search
+                        ida   Iterative deepening A* search; requires a heuristic
+                        sma   Simplified memory-bounded A* search; requires a heuristic
+                        ara   Anytime repairing A* search; requires a heuristic
+                    With --threads greater than 1, bfs runs as a level-synchronous search over bitset frontiers,
+                    and ucs and astar run as hash-distributed parallel searches.
+                    ara starts with the heuristic inflated by --weight (default 3) and prints every solution it
+                    finds with its suboptimality bound, lowering the weight until the bound reaches --epsilon
+                    (default 1, optimal) or --time-limit milliseconds of search have passed. The first solution is
+                    always completed.
+                    With --max-nodes, sma keeps at most the given number of search tree nodes (default 1000000).
+                    With --stats, search counters and phase timings are printed after the result, as text lines
+                    or as a single JSON object.
+                    With --ch path_to_hierarchy, ucs runs as a bidirectional upward search over a contraction
+                    hierarchy built by --build-ch, and the shortcuts are unpacked into the full path.
+                java ui.Solution --alg bfs|ucs --external --snapshot path_to_snapshot [--scratch directory]
+                        [--memory-limit megabytes] [--stats [text|json]]
+                    Finds a solution without loading the state space, streaming the successors from the
+                    memory-mapped snapshot. States are settled in batches that each cover a cost range as wide as
+                    the cheapest transition (one depth for bfs, a single cost when some transition is free), and
+                    the open list spills to sorted run files in the scratch directory (default the system
+                    temporary directory) when it outgrows the memory limit (default 64), which are merged 16 at a
+                    time. Duplicates are removed by merging each batch against the sorted files of the states
+                    settled before it. The bytes written to and read from the scratch files and read from the
+                    snapshot are printed after the result.
+                java ui.Solution --compile path_to_snapshot --ss path_to_state_space [--h path_to_heuristic]
+                    Writes the parsed state space and heuristic to a binary snapshot.
+                java ui.Solution --build-landmarks path_to_landmarks --ss path_to_state_space [--landmark-count count]
+                        [--landmark-strategy farthest|avoid]
+                    Picks landmark states and writes the shortest path distances from and to every landmark to a
+                    binary landmark table (default 16 landmarks, chosen with the avoid strategy).
+                    Farthest picks each landmark as far as possible from the ones already chosen; avoid grows
+                    them in the parts of the shortest path tree from the initial state that the current
+                    landmarks bound worst.
+                java ui.Solution --build-ch path_to_hierarchy --ss path_to_state_space
+                    Contracts the states one by one, adding shortcut transitions that preserve shortest path costs,
+                    and writes the resulting contraction hierarchy to a binary file.
+                java ui.Solution --replan --ss path_to_state_space [--h path_to_heuristic] [--stats [text|json]]
+                    Reads commands from standard input, one per line, and keeps a lifelong planning A* search
+                    between them, so that each query only repairs the states affected by the preceding changes:
+                        set from to cost    Changes the cost of an existing transition
+                        add from to cost    Adds a new transition
+                        remove from to      Removes a transition
+                        query               Prints the current shortest path from the initial state to a goal
+                    Empty lines and lines starting with '#' are ignored. The heuristic is optional and should be
+                    consistent for the changed costs as well.
+                java ui.Solution --batch [path_to_queries] --ss path_to_state_space [--threads count]
+                    Answers many queries against one loaded state space, reading them from the given file or from
+                    standard input, one per line as a start state optionally followed by goal states (default the
+                    goal states of the state space). Each goal set gets one reverse shortest path tree, cached for
+                    the most recent 64 goal sets and shared by all queries to it. With --threads, queries are
+                    answered in parallel; the results are always printed in the order of the queries.
                 java ui.Solution --check-optimistic --ss path_to_state_space --h path_to_heuristic
+                        [--summary] [--threads count]
                     Checks whether a heuristic is optimistic for the given state space.
                 java ui.Solution --check-consistent --ss path_to_state_space --h path_to_heuristic
+                        [--summary] [--threads count]
                     Checks whether a heuristic is consistent for the given state space.
+                    With --summary, only the violated conditions and the condition counts are printed.
+                    With --threads, the conditions are checked in parallel chunks.
+                Every mode that uses a heuristic accepts --landmarks path_to_landmarks, which estimates costs from
+                the landmark table with the triangle inequality. With --h as well, the larger estimate is used.
+                Every mode except --compile accepts --snapshot path_to_snapshot in place of --ss. The heuristic
+                stored in the snapshot is used when a heuristic is required and --h is not given.
+                Every mode also accepts an implicit state space in place of --ss, whose successors are generated
+                on expansion and whose heuristic is computed on the fly when --h is not given:
+                    --puzzle board
+                        A sliding tile puzzle starting from the given board, with rows separated by '/' and tiles
+                        by '_', e.g. 8_6_7/2_5_4/3_0_1. Uses the Manhattan distance heuristic.
+                    --grid widthxheight [--seed seed] [--diagonal]
+                        A grid map with randomly blocked cells and cell costs from 1 to 9, from the top left to the
+                        bottom right corner. Uses the Manhattan, or with --diagonal the octile, distance heuristic.
+                bfs, ucs, astar, ida, sma and ara generate only the states they expand. biucs, --compact,
+                --threads and the modes that need the whole graph run over all reachable states.
             """;
 
     public static void main(String... args) {
@@ -33,20 +113,54 @@ public class Solution {
             return;
         }
 
-        StateSpace stateSpace;
+        if (arguments.external) {
+            externalSearch(arguments);
+            return;
+        }
+
+        long loadStart = System.nanoTime();
+        SearchProblem stateSpace;
+        Heuristic heuristic = null;
         try {
-            stateSpace = StateSpace.read(Files.lines(Path.of(arguments.stateSpacePath)));
+            if (arguments.implicitStateSpace != null) {
+                stateSpace = arguments.implicitStateSpace;
+
+                if (arguments.heuristicPath == null && arguments.landmarksPath == null &&
+                        (arguments.requiresHeuristic() || arguments.operation == Arguments.Operation.COMPILE ||
+                                arguments.operation == Arguments.Operation.REPLAN)) {
+                    heuristic = arguments.implicitHeuristic;
+                    arguments.heuristicPath = arguments.implicitHeuristicName;
+                }
+            } else if (arguments.snapshotPath != null) {
+                StateSpaceSnapshot snapshot = StateSpaceSnapshot.read(Path.of(arguments.snapshotPath));
+                stateSpace = snapshot.stateSpace;
+
+                if (arguments.heuristicPath == null && arguments.landmarksPath == null &&
+                        arguments.requiresHeuristic()) {
+                    if (snapshot.heuristic == null)
+                        throw new IOException("Snapshot contains no heuristic");
+
+                    heuristic = snapshot.heuristic;
+                    arguments.heuristicPath = arguments.snapshotPath;
+                }
+            } else if (arguments.mmap)
+                stateSpace = MappedDescriptorReader.readStateSpace(Path.of(arguments.stateSpacePath));
+            else
+                stateSpace = StateSpace.read(Files.lines(Path.of(arguments.stateSpacePath)));
         } catch (IOException e) {
-            System.err.println("Error reading state space descriptor from path " + arguments.stateSpacePath);
+            System.err.println("Error reading state space descriptor from path " +
+                    (arguments.snapshotPath != null ? arguments.snapshotPath : arguments.stateSpacePath));
 
             System.exit(1);
             return;
         }
 
-        Heuristic heuristic = null;
-        if (arguments.heuristicPath != null) {
+        if (heuristic == null && arguments.heuristicPath != null) {
             try {
-                heuristic = Heuristic.read(Files.lines(Path.of(arguments.heuristicPath)));
+                if (arguments.mmap)
+                    heuristic = MappedDescriptorReader.readHeuristic(Path.of(arguments.heuristicPath));
+                else
+                    heuristic = Heuristic.read(Files.lines(Path.of(arguments.heuristicPath)));
             } catch (IOException e) {
                 System.err.println("Error reading heuristic descriptor from path " + arguments.heuristicPath);
 
@@ -55,52 +169,342 @@ public class Solution {
             }
         }
 
+        if (arguments.landmarksPath != null) {
+            stateSpace = StateSpace.explore(stateSpace);
+
+            try {
+                Heuristic landmarks = LandmarkHeuristic.read(Path.of(arguments.landmarksPath), (StateSpace) stateSpace);
+                heuristic = heuristic == null ? landmarks : Heuristic.max(heuristic, landmarks);
+                if (arguments.heuristicPath == null)
+                    arguments.heuristicPath = arguments.landmarksPath;
+            } catch (IOException e) {
+                System.err.println("Error reading landmark table from path " + arguments.landmarksPath);
+
+                System.exit(1);
+                return;
+            }
+        }
+
+        ContractionHierarchy hierarchy = null;
+        if (arguments.hierarchyPath != null) {
+            stateSpace = StateSpace.explore(stateSpace);
+
+            try {
+                hierarchy = ContractionHierarchy.read(Path.of(arguments.hierarchyPath), (StateSpace) stateSpace);
+            } catch (IOException e) {
+                System.err.println("Error reading contraction hierarchy from path " + arguments.hierarchyPath);
+
+                System.exit(1);
+                return;
+            }
+        }
+
+        long loadNanos = System.nanoTime() - loadStart;
+
         switch (arguments.operation) {
+            case COMPILE -> {
+                try {
+                    StateSpaceSnapshot.write(Path.of(arguments.compilePath), StateSpace.explore(stateSpace), heuristic);
+                } catch (IOException e) {
+                    System.err.println("Error writing snapshot to path " + arguments.compilePath);
+
+                    System.exit(1);
+                    return;
+                }
+
+                System.out.println("# COMPILED " + arguments.compilePath);
+            }
+            case BUILD_LANDMARKS -> {
+                LandmarkHeuristic landmarks = LandmarkHeuristic.build(StateSpace.explore(stateSpace),
+                        arguments.landmarkCount, arguments.landmarkStrategy);
+                try {
+                    landmarks.write(Path.of(arguments.buildLandmarksPath));
+                } catch (IOException e) {
+                    System.err.println("Error writing landmark table to path " + arguments.buildLandmarksPath);
+
+                    System.exit(1);
+                    return;
+                }
+
+                System.out.println("# LANDMARKS " + arguments.buildLandmarksPath);
+                System.out.println("[LANDMARKS]: " + String.join(", ", landmarks.getLandmarks()));
+            }
+            case BUILD_CONTRACTION_HIERARCHY -> {
+                ContractionHierarchy contractionHierarchy = ContractionHierarchy.build(StateSpace.explore(stateSpace));
+                try {
+                    contractionHierarchy.write(Path.of(arguments.buildHierarchyPath));
+                } catch (IOException e) {
+                    System.err.println("Error writing contraction hierarchy to path " + arguments.buildHierarchyPath);
+
+                    System.exit(1);
+                    return;
+                }
+
+                System.out.println("# CONTRACTION-HIERARCHY " + arguments.buildHierarchyPath);
+                System.out.println("[SHORTCUTS]: " + contractionHierarchy.getShortcutCount());
+            }
             case FIND_SOLUTION -> {
-                SearchAlgorithm.SearchResult searchResult = (switch (arguments.algorithmIdentifier) {
-                    case BFS -> SearchAlgorithms.BREADTH_FIRST_SEARCH;
-                    case UCS -> SearchAlgorithms.UNIFORM_COST_SEARCH;
-                    case A_STAR -> SearchAlgorithms.A_STAR_SEARCH;
-                }).search(stateSpace, heuristic);
+                SearchAlgorithm algorithm;
+                if (hierarchy != null) {
+                    algorithm = hierarchy;
+                } else if (arguments.threads > 1 && arguments.algorithmIdentifier == Arguments.AlgorithmIdentifier.BFS) {
+                    algorithm = new FrontierBreadthFirstSearch(arguments.threads);
+                } else if (arguments.threads > 1) {
+                    algorithm = new HashDistributedSearch(arguments.threads,
+                            arguments.algorithmIdentifier == Arguments.AlgorithmIdentifier.A_STAR);
+                } else if (arguments.compact) {
+                    algorithm = switch (arguments.algorithmIdentifier) {
+                        case BFS -> SearchAlgorithms.COMPACT_BREADTH_FIRST_SEARCH;
+                        case UCS -> SearchAlgorithms.COMPACT_UNIFORM_COST_SEARCH;
+                        case A_STAR -> SearchAlgorithms.COMPACT_A_STAR_SEARCH;
+                        case BIDIRECTIONAL_BFS -> SearchAlgorithms.BIDIRECTIONAL_BREADTH_FIRST_SEARCH;
+                        case BIDIRECTIONAL_UCS -> SearchAlgorithms.BIDIRECTIONAL_UNIFORM_COST_SEARCH;
+                        case IDA_STAR -> SearchAlgorithms.ITERATIVE_DEEPENING_A_STAR_SEARCH;
+                        case SMA_STAR -> new SimplifiedMemoryBoundedAStar(arguments.maxNodes);
+                        case ARA_STAR -> anytimeSearch(arguments);
+                    };
+                } else {
+                    algorithm = switch (arguments.algorithmIdentifier) {
+                        case BFS -> SearchAlgorithms.BREADTH_FIRST_SEARCH;
+                        case UCS -> SearchAlgorithms.UNIFORM_COST_SEARCH;
+                        case A_STAR -> SearchAlgorithms.A_STAR_SEARCH;
+                        case BIDIRECTIONAL_BFS -> SearchAlgorithms.BIDIRECTIONAL_BREADTH_FIRST_SEARCH;
+                        case BIDIRECTIONAL_UCS -> SearchAlgorithms.BIDIRECTIONAL_UNIFORM_COST_SEARCH;
+                        case IDA_STAR -> SearchAlgorithms.ITERATIVE_DEEPENING_A_STAR_SEARCH;
+                        case SMA_STAR -> new SimplifiedMemoryBoundedAStar(arguments.maxNodes);
+                        case ARA_STAR -> anytimeSearch(arguments);
+                    };
+                }
+
+                SearchMetrics metrics = new SearchMetrics();
+                metrics.loadNanos = loadNanos;
 
                 if (heuristic != null) {
                     System.out.println("# " + arguments.algorithmIdentifier.friendlyName + " " + arguments.heuristicPath);
                 } else {
                     System.out.println("# " + arguments.algorithmIdentifier.friendlyName);
                 }
-                System.out.println("[FOUND_SOLUTION]: " + (searchResult == null ? "no" : "yes"));
 
-                if (searchResult != null) {
-                    List<String> path = new LinkedList<>();
+                long searchStart = System.nanoTime();
+                SearchAlgorithm.SearchResult searchResult = algorithm.search(stateSpace, heuristic, metrics);
+                metrics.searchNanos = System.nanoTime() - searchStart - metrics.pathReconstructionNanos;
 
-                    Node n = searchResult.node;
-                    while (n != null) {
-                        path.add(0, n.state);
-                        n = n.parent;
-                    }
+                printResult(searchResult, metrics, arguments.algorithmIdentifier.reportsReexpansions);
+                printStats(arguments, metrics);
+            }
+            case REPLAN -> {
+                LifelongPlanningAStar planner = new LifelongPlanningAStar(StateSpace.explore(stateSpace), heuristic);
+                try {
+                    replan(planner, arguments);
+                } catch (IOException e) {
+                    System.err.println("Error reading commands from standard input");
 
-                    System.out.println("[STATES_VISITED]: " + searchResult.visitedCount);
-                    System.out.println("[PATH_LENGTH]: " + path.size());
-                    System.out.printf("[TOTAL_COST]: %.1f\n", searchResult.node.accumulatedCost);
-                    System.out.println("[PATH]: " + String.join(" => ", path));
+                    System.exit(1);
+                    return;
                 }
             }
+            case BATCH -> {
+                QueryBatch batch = new QueryBatch(StateSpace.explore(stateSpace));
+                PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 20));
+                PrintWriter errors = new PrintWriter(System.err, true);
+
+                long queryCount;
+                try (BufferedReader in = arguments.batchPath == null
+                        ? new BufferedReader(new InputStreamReader(System.in))
+                        : Files.newBufferedReader(Path.of(arguments.batchPath))) {
+                    queryCount = batch.answer(in, out, errors, arguments.threads);
+                } catch (IOException e) {
+                    System.err.println("Error reading queries from " +
+                            (arguments.batchPath == null ? "standard input" : "path " + arguments.batchPath));
+
+                    System.exit(1);
+                    return;
+                }
+
+                out.println("# BATCH");
+                out.println("[QUERIES]: " + queryCount);
+                out.println("[SEARCH_TREES]: " + batch.getTreeCount());
+                out.flush();
+            }
             case CHECK_OPTIMISTIC -> {
                 System.out.println("# HEURISTIC-OPTIMISTIC " + arguments.heuristicPath);
-                Checks.isOptimistic(stateSpace, heuristic);
+                validator(arguments).checkOptimistic(StateSpace.explore(stateSpace), heuristic);
             }
             case CHECK_CONSISTENT -> {
                 System.out.println("# HEURISTIC-CONSISTENT " + arguments.heuristicPath);
-                Checks.isConsistent(stateSpace, heuristic);
+                validator(arguments).checkConsistent(StateSpace.explore(stateSpace), heuristic);
             }
         }
     }
 
+    private static void externalSearch(Arguments arguments) {
+        ExternalSearch search = new ExternalSearch(Path.of(arguments.scratchPath), arguments.memoryLimitBytes,
+                arguments.algorithmIdentifier == Arguments.AlgorithmIdentifier.BFS);
+        SearchMetrics metrics = new SearchMetrics();
+
+        System.out.println("# " + arguments.algorithmIdentifier.friendlyName);
+
+        SearchAlgorithm.SearchResult searchResult;
+        long searchStart = System.nanoTime();
+        try {
+            searchResult = search.search(Path.of(arguments.snapshotPath), metrics);
+        } catch (IOException e) {
+            System.err.println("Error during external search: " + e.getMessage());
+
+            System.exit(1);
+            return;
+        }
+        metrics.searchNanos = System.nanoTime() - searchStart;
+
+        printResult(searchResult, metrics, false);
+        System.out.println("[SCRATCH_BYTES_WRITTEN]: " + search.getBytesWritten());
+        System.out.println("[SCRATCH_BYTES_READ]: " + search.getBytesRead());
+        System.out.println("[SNAPSHOT_BYTES_READ]: " + search.getSnapshotBytesRead());
+        printStats(arguments, metrics);
+    }
+
+    private static void replan(LifelongPlanningAStar planner, Arguments arguments) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        int lineNumber = 0;
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] command = line.split("\\s+");
+            try {
+                switch (command[0]) {
+                    case "set" -> {
+                        checkOperands(command, 3);
+                        planner.setTransitionCost(command[1], command[2], Double.parseDouble(command[3]));
+                    }
+                    case "add" -> {
+                        checkOperands(command, 3);
+                        planner.addTransition(command[1], command[2], Double.parseDouble(command[3]));
+                    }
+                    case "remove" -> {
+                        checkOperands(command, 2);
+                        planner.removeTransition(command[1], command[2]);
+                    }
+                    case "query" -> {
+                        checkOperands(command, 0);
+                        if (arguments.heuristicPath != null)
+                            System.out.println("# LPA-STAR " + arguments.heuristicPath);
+                        else
+                            System.out.println("# LPA-STAR");
+
+                        SearchMetrics metrics = new SearchMetrics();
+                        long searchStart = System.nanoTime();
+                        SearchAlgorithm.SearchResult searchResult = planner.search(metrics);
+                        metrics.searchNanos = System.nanoTime() - searchStart;
+
+                        printResult(searchResult, metrics, false);
+                        printStats(arguments, metrics);
+                    }
+                    default -> throw new IllegalArgumentException("Unknown command " + command[0]);
+                }
+            } catch (IllegalArgumentException | IllegalStateException | NoSuchElementException e) {
+                System.err.println("Invalid command on line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void checkOperands(String[] command, int count) {
+        if (command.length != count + 1)
+            throw new IllegalArgumentException(command[0] + " expects " + count + " operands");
+    }
+
+    private static void printResult(SearchAlgorithm.SearchResult searchResult, SearchMetrics metrics,
+                                    boolean reportsReexpansions) {
+        System.out.println("[FOUND_SOLUTION]: " + (searchResult == null ? "no" : "yes"));
+
+        if (searchResult != null) {
+            long pathStart = System.nanoTime();
+            int length = 0;
+            for (Node n = searchResult.node; n != null; n = n.parent)
+                length++;
+
+            String[] path = new String[length];
+            for (Node n = searchResult.node; n != null; n = n.parent)
+                path[--length] = n.state;
+            metrics.pathReconstructionNanos += System.nanoTime() - pathStart;
+
+            System.out.println("[STATES_VISITED]: " + searchResult.visitedCount);
+            if (reportsReexpansions)
+                System.out.println("[STATES_REEXPANDED]: " + searchResult.reexpandedCount);
+            System.out.println("[PATH_LENGTH]: " + path.length);
+            System.out.printf("[TOTAL_COST]: %.1f\n", searchResult.node.accumulatedCost);
+            System.out.println("[PATH]: " + String.join(" => ", path));
+        }
+    }
+
+    private static void printStats(Arguments arguments, SearchMetrics metrics) {
+        if (arguments.stats == Arguments.StatsFormat.TEXT) {
+            System.out.println("# STATS");
+            System.out.println(metrics.toText());
+        } else if (arguments.stats == Arguments.StatsFormat.JSON) {
+            System.out.println("# STATS");
+            System.out.println(metrics.toJson());
+        }
+    }
+
+    private static SearchAlgorithm anytimeSearch(Arguments arguments) {
+        return new AnytimeRepairingAStar(arguments.weight, arguments.epsilon, arguments.timeLimitNanos,
+                (result, bound, elapsedNanos) -> System.out.printf("[IMPROVED_SOLUTION]: cost = %.1f, bound = %.3f, time = %.3f ms\n",
+                        result.node.accumulatedCost, bound, elapsedNanos / 1e6));
+    }
+
+    private static HeuristicValidator validator(Arguments arguments) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 20));
+        return new HeuristicValidator(arguments.threads, out, arguments.summaryOnly);
+    }
+
     private static class Arguments {
         public Operation operation = null;
         public AlgorithmIdentifier algorithmIdentifier = null;
         public String stateSpacePath = null;
         public String heuristicPath = null;
+        public boolean compact = false;
+        public boolean mmap = false;
+        public boolean external = false;
+        public String scratchPath = System.getProperty("java.io.tmpdir");
+        public long memoryLimitBytes = 64L << 20;
+        private boolean externalOptions = false;
+        public int maxNodes = 1_000_000;
+        private boolean memoryBoundOptions = false;
+        public double weight = 3;
+        public double epsilon = 1;
+        public long timeLimitNanos = Long.MAX_VALUE;
+        private boolean anytimeOptions = false;
+        public int threads = 1;
+        public boolean summaryOnly = false;
+        public String snapshotPath = null;
+        public String compilePath = null;
+        public String batchPath = null;
+        public String buildLandmarksPath = null;
+        public String landmarksPath = null;
+        public String buildHierarchyPath = null;
+        public String hierarchyPath = null;
+        public int landmarkCount = 16;
+        private boolean landmarkOptions = false;
+        public LandmarkHeuristic.Strategy landmarkStrategy = LandmarkHeuristic.Strategy.AVOID;
+        public StatsFormat stats = StatsFormat.NONE;
+        public SearchProblem implicitStateSpace = null;
+        public Heuristic implicitHeuristic = null;
+        public String implicitHeuristicName = null;
+        public int gridWidth = 0;
+        public int gridHeight = 0;
+        public long gridSeed = 0;
+        public boolean gridDiagonal = false;
+        private boolean gridOptions = false;
+
+        private boolean requiresHeuristic() {
+            return operation == Operation.CHECK_OPTIMISTIC || operation == Operation.CHECK_CONSISTENT ||
+                    operation == Operation.FIND_SOLUTION && algorithmIdentifier.requiresHeuristic;
+        }
 
         private static Arguments parseArguments(String[] args) {
             Arguments arguments = new Arguments();
@@ -118,9 +522,26 @@ public class Solution {
                             case "bfs" -> AlgorithmIdentifier.BFS;
                             case "ucs" -> AlgorithmIdentifier.UCS;
                             case "astar" -> AlgorithmIdentifier.A_STAR;
+                            case "bibfs" -> AlgorithmIdentifier.BIDIRECTIONAL_BFS;
+                            case "biucs" -> AlgorithmIdentifier.BIDIRECTIONAL_UCS;
+                            case "ida" -> AlgorithmIdentifier.IDA_STAR;
+                            case "sma" -> AlgorithmIdentifier.SMA_STAR;
+                            case "ara" -> AlgorithmIdentifier.ARA_STAR;
                             default -> throw new IllegalArgumentException("Unknown algorithm " + args[i]);
                         };
                     }
+                    case "--batch" -> {
+                        if (arguments.operation != null)
+                            throw new IllegalArgumentException("Multiple conflicting modes specified");
+                        arguments.operation = Operation.BATCH;
+                        if (i + 1 < args.length && !args[i + 1].startsWith("--"))
+                            arguments.batchPath = args[++i];
+                    }
+                    case "--replan" -> {
+                        if (arguments.operation != null)
+                            throw new IllegalArgumentException("Multiple conflicting modes specified");
+                        arguments.operation = Operation.REPLAN;
+                    }
                     case "--check-optimistic" -> {
                         if (arguments.operation != null)
                             throw new IllegalArgumentException("Multiple conflicting modes specified");
@@ -131,6 +552,75 @@ public class Solution {
                             throw new IllegalArgumentException("Multiple conflicting modes specified");
                         arguments.operation = Operation.CHECK_CONSISTENT;
                     }
+                    case "--compile" -> {
+                        if (arguments.operation != null)
+                            throw new IllegalArgumentException("Multiple conflicting modes specified");
+                        arguments.operation = Operation.COMPILE;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--compile specified with no path");
+                        i++;
+                        arguments.compilePath = args[i];
+                    }
+                    case "--build-landmarks" -> {
+                        if (arguments.operation != null)
+                            throw new IllegalArgumentException("Multiple conflicting modes specified");
+                        arguments.operation = Operation.BUILD_LANDMARKS;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--build-landmarks specified with no path");
+                        i++;
+                        arguments.buildLandmarksPath = args[i];
+                    }
+                    case "--landmarks" -> {
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--landmarks specified with no path");
+                        i++;
+                        arguments.landmarksPath = args[i];
+                    }
+                    case "--landmark-count" -> {
+                        arguments.landmarkOptions = true;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--landmark-count specified with no count");
+                        i++;
+                        try {
+                            arguments.landmarkCount = Integer.parseInt(args[i]);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid landmark count " + args[i]);
+                        }
+                        if (arguments.landmarkCount < 1)
+                            throw new IllegalArgumentException("--landmark-count must be at least 1");
+                    }
+                    case "--landmark-strategy" -> {
+                        arguments.landmarkOptions = true;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--landmark-strategy specified with no strategy");
+                        i++;
+                        arguments.landmarkStrategy = switch (args[i]) {
+                            case "farthest" -> LandmarkHeuristic.Strategy.FARTHEST;
+                            case "avoid" -> LandmarkHeuristic.Strategy.AVOID;
+                            default -> throw new IllegalArgumentException("Unknown landmark strategy " + args[i]);
+                        };
+                    }
+                    case "--build-ch" -> {
+                        if (arguments.operation != null)
+                            throw new IllegalArgumentException("Multiple conflicting modes specified");
+                        arguments.operation = Operation.BUILD_CONTRACTION_HIERARCHY;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--build-ch specified with no path");
+                        i++;
+                        arguments.buildHierarchyPath = args[i];
+                    }
+                    case "--ch" -> {
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--ch specified with no path");
+                        i++;
+                        arguments.hierarchyPath = args[i];
+                    }
+                    case "--snapshot" -> {
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--snapshot specified with no path");
+                        i++;
+                        arguments.snapshotPath = args[i];
+                    }
                     case "--ss" -> {
                         if (i + 1 >= args.length)
                             throw new IllegalArgumentException("--ss specified with no path");
@@ -143,39 +633,249 @@ public class Solution {
                         i++;
                         arguments.heuristicPath = args[i];
                     }
+                    case "--puzzle" -> {
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--puzzle specified with no board");
+                        i++;
+                        SlidingPuzzle puzzle = new SlidingPuzzle(args[i]);
+                        arguments.implicitStateSpace = puzzle;
+                        arguments.implicitHeuristic = puzzle.getHeuristic();
+                        arguments.implicitHeuristicName = puzzle.getHeuristicName();
+                    }
+                    case "--grid" -> {
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--grid specified with no size");
+                        i++;
+                        int separator = args[i].indexOf('x');
+                        try {
+                            arguments.gridWidth = Integer.parseInt(args[i].substring(0, Math.max(separator, 0)));
+                            arguments.gridHeight = Integer.parseInt(args[i].substring(separator + 1));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid grid size " + args[i]);
+                        }
+                    }
+                    case "--seed" -> {
+                        arguments.gridOptions = true;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--seed specified with no value");
+                        i++;
+                        try {
+                            arguments.gridSeed = Long.parseLong(args[i]);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid seed " + args[i]);
+                        }
+                    }
+                    case "--diagonal" -> {
+                        arguments.gridOptions = true;
+                        arguments.gridDiagonal = true;
+                    }
+                    case "--compact" -> arguments.compact = true;
+                    case "--mmap" -> arguments.mmap = true;
+                    case "--external" -> arguments.external = true;
+                    case "--scratch" -> {
+                        arguments.externalOptions = true;
+                        if (++i >= args.length)
+                            throw new IllegalArgumentException("--scratch specified with no path");
+                        arguments.scratchPath = args[i];
+                    }
+                    case "--memory-limit" -> {
+                        arguments.externalOptions = true;
+                        if (++i >= args.length)
+                            throw new IllegalArgumentException("--memory-limit specified with no size");
+                        try {
+                            arguments.memoryLimitBytes = Long.parseLong(args[i]) << 20;
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid memory limit " + args[i]);
+                        }
+                        if (arguments.memoryLimitBytes < 1L << 20)
+                            throw new IllegalArgumentException("--memory-limit must be at least 1");
+                    }
+                    case "--summary" -> arguments.summaryOnly = true;
+                    case "--stats" -> {
+                        arguments.stats = StatsFormat.TEXT;
+                        if (i + 1 < args.length && (args[i + 1].equals("text") || args[i + 1].equals("json"))) {
+                            i++;
+                            if (args[i].equals("json"))
+                                arguments.stats = StatsFormat.JSON;
+                        }
+                    }
+                    case "--max-nodes" -> {
+                        arguments.memoryBoundOptions = true;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--max-nodes specified with no count");
+                        i++;
+                        try {
+                            arguments.maxNodes = Integer.parseInt(args[i]);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid node count " + args[i]);
+                        }
+                        if (arguments.maxNodes < 2)
+                            throw new IllegalArgumentException("--max-nodes must be at least 2");
+                    }
+                    case "--weight" -> {
+                        arguments.anytimeOptions = true;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--weight specified with no value");
+                        i++;
+                        try {
+                            arguments.weight = Double.parseDouble(args[i]);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid weight " + args[i]);
+                        }
+                    }
+                    case "--epsilon" -> {
+                        arguments.anytimeOptions = true;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--epsilon specified with no value");
+                        i++;
+                        try {
+                            arguments.epsilon = Double.parseDouble(args[i]);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid epsilon " + args[i]);
+                        }
+                        if (!(arguments.epsilon >= 1))
+                            throw new IllegalArgumentException("--epsilon must be at least 1");
+                    }
+                    case "--time-limit" -> {
+                        arguments.anytimeOptions = true;
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--time-limit specified with no duration");
+                        i++;
+                        try {
+                            arguments.timeLimitNanos = Math.multiplyExact(Long.parseLong(args[i]), 1_000_000L);
+                        } catch (NumberFormatException | ArithmeticException e) {
+                            throw new IllegalArgumentException("Invalid time limit " + args[i]);
+                        }
+                        if (arguments.timeLimitNanos <= 0)
+                            throw new IllegalArgumentException("--time-limit must be positive");
+                    }
+                    case "--threads" -> {
+                        if (i + 1 >= args.length)
+                            throw new IllegalArgumentException("--threads specified with no count");
+                        i++;
+                        try {
+                            arguments.threads = Integer.parseInt(args[i]);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid thread count " + args[i]);
+                        }
+                        if (arguments.threads < 1)
+                            throw new IllegalArgumentException("--threads must be at least 1");
+                    }
                 }
             }
 
+            if (arguments.gridOptions && arguments.gridWidth == 0 && arguments.gridHeight == 0)
+                throw new IllegalArgumentException("--seed and --diagonal require --grid");
+            if (arguments.gridWidth != 0 || arguments.gridHeight != 0) {
+                if (arguments.implicitStateSpace != null)
+                    throw new IllegalArgumentException("Both a puzzle and a grid specified");
+
+                GridMap grid = new GridMap(arguments.gridWidth, arguments.gridHeight, arguments.gridSeed,
+                        arguments.gridDiagonal);
+                arguments.implicitStateSpace = grid;
+                arguments.implicitHeuristic = grid.getHeuristic();
+                arguments.implicitHeuristicName = grid.getHeuristicName();
+            }
+
             if (arguments.operation == null)
                 throw new IllegalArgumentException("Missing mode of operation");
             if (arguments.algorithmIdentifier == null && arguments.operation == Operation.FIND_SOLUTION)
                 throw new IllegalArgumentException("Missing algorithm name");
-            if (arguments.stateSpacePath == null)
+            int sourceCount = (arguments.stateSpacePath != null ? 1 : 0) + (arguments.snapshotPath != null ? 1 : 0) +
+                    (arguments.implicitStateSpace != null ? 1 : 0);
+            if (sourceCount == 0)
                 throw new IllegalArgumentException("Missing state space path");
-            if (arguments.heuristicPath == null && (arguments.operation != Operation.FIND_SOLUTION ||
-                    arguments.algorithmIdentifier == AlgorithmIdentifier.A_STAR))
+            if (sourceCount > 1)
+                throw new IllegalArgumentException("Multiple state space sources specified");
+            if (arguments.implicitStateSpace != null && arguments.mmap)
+                throw new IllegalArgumentException("--mmap requires a state space descriptor");
+            if (arguments.snapshotPath != null && arguments.operation == Operation.COMPILE)
+                throw new IllegalArgumentException("--compile requires a text state space descriptor");
+            if (arguments.heuristicPath == null && arguments.landmarksPath == null && arguments.snapshotPath == null &&
+                    arguments.implicitStateSpace == null && arguments.requiresHeuristic())
                 throw new IllegalArgumentException("Missing heuristic path");
-            if (arguments.heuristicPath != null && arguments.operation == Operation.FIND_SOLUTION &&
-                    arguments.algorithmIdentifier != AlgorithmIdentifier.A_STAR)
+            if ((arguments.heuristicPath != null || arguments.landmarksPath != null) &&
+                    arguments.operation == Operation.FIND_SOLUTION && !arguments.algorithmIdentifier.requiresHeuristic)
+                throw new IllegalArgumentException("This mode or algorithm does not allow a heuristic");
+            if ((arguments.heuristicPath != null || arguments.landmarksPath != null) &&
+                    (arguments.operation == Operation.BUILD_LANDMARKS ||
+                            arguments.operation == Operation.BUILD_CONTRACTION_HIERARCHY ||
+                            arguments.operation == Operation.BATCH))
                 throw new IllegalArgumentException("This mode or algorithm does not allow a heuristic");
+            if (arguments.landmarksPath != null && arguments.operation == Operation.COMPILE)
+                throw new IllegalArgumentException("--landmarks is not supported when compiling");
+            if (arguments.landmarkOptions && arguments.operation != Operation.BUILD_LANDMARKS)
+                throw new IllegalArgumentException("--landmark-count and --landmark-strategy are only supported by --build-landmarks");
+            if (arguments.threads > 1 && arguments.operation == Operation.FIND_SOLUTION && (
+                    arguments.algorithmIdentifier != AlgorithmIdentifier.BFS &&
+                    arguments.algorithmIdentifier != AlgorithmIdentifier.UCS &&
+                    arguments.algorithmIdentifier != AlgorithmIdentifier.A_STAR))
+                throw new IllegalArgumentException("Only bfs, ucs and astar support multiple threads");
+            if (arguments.anytimeOptions && (arguments.operation != Operation.FIND_SOLUTION ||
+                    arguments.algorithmIdentifier != AlgorithmIdentifier.ARA_STAR))
+                throw new IllegalArgumentException("--weight, --epsilon and --time-limit are only supported by ara");
+            if (arguments.anytimeOptions && arguments.weight < arguments.epsilon)
+                throw new IllegalArgumentException("--weight must not be below --epsilon");
+            if (arguments.memoryBoundOptions && (arguments.operation != Operation.FIND_SOLUTION ||
+                    arguments.algorithmIdentifier != AlgorithmIdentifier.SMA_STAR))
+                throw new IllegalArgumentException("--max-nodes is only supported by sma");
+            if (arguments.summaryOnly && arguments.operation != Operation.CHECK_OPTIMISTIC &&
+                    arguments.operation != Operation.CHECK_CONSISTENT)
+                throw new IllegalArgumentException("--summary is only supported when checking a heuristic");
+            if (arguments.hierarchyPath != null && (arguments.operation != Operation.FIND_SOLUTION ||
+                    arguments.algorithmIdentifier != AlgorithmIdentifier.UCS || arguments.compact ||
+                    arguments.threads > 1))
+                throw new IllegalArgumentException("--ch is only supported by ucs without --compact or --threads");
+            if (arguments.external && (arguments.operation != Operation.FIND_SOLUTION ||
+                    arguments.algorithmIdentifier != AlgorithmIdentifier.BFS &&
+                    arguments.algorithmIdentifier != AlgorithmIdentifier.UCS))
+                throw new IllegalArgumentException("--external is only supported by bfs and ucs");
+            if (arguments.external && (arguments.snapshotPath == null || arguments.compact || arguments.threads > 1 ||
+                    arguments.hierarchyPath != null))
+                throw new IllegalArgumentException("--external requires --snapshot and no --compact, --threads or --ch");
+            if (arguments.externalOptions && !arguments.external)
+                throw new IllegalArgumentException("--scratch and --memory-limit require --external");
+            if (arguments.stats != StatsFormat.NONE && arguments.operation != Operation.FIND_SOLUTION &&
+                    arguments.operation != Operation.REPLAN)
+                throw new IllegalArgumentException("--stats is only supported when finding a solution or replanning");
 
             return arguments;
         }
 
         public enum AlgorithmIdentifier {
-            BFS("BFS"),
-            UCS("UCS"),
-            A_STAR("A-STAR");
+            BFS("BFS", false, false),
+            UCS("UCS", false, false),
+            A_STAR("A-STAR", true, false),
+            BIDIRECTIONAL_BFS("BIDIRECTIONAL-BFS", false, false),
+            BIDIRECTIONAL_UCS("BIDIRECTIONAL-UCS", false, false),
+            IDA_STAR("IDA-STAR", true, true),
+            SMA_STAR("SMA-STAR", true, true),
+            ARA_STAR("ARA-STAR", true, true);
 
             public String friendlyName;
+            public boolean requiresHeuristic;
+            public boolean reportsReexpansions;
 
-            AlgorithmIdentifier(String friendlyName) {
+            AlgorithmIdentifier(String friendlyName, boolean requiresHeuristic, boolean reportsReexpansions) {
                 this.friendlyName = friendlyName;
+                this.requiresHeuristic = requiresHeuristic;
+                this.reportsReexpansions = reportsReexpansions;
             }
         }
 
+        public enum StatsFormat {
+            NONE,
+            TEXT,
+            JSON,
+        }
+
         public enum Operation {
             FIND_SOLUTION,
+            COMPILE,
+            BUILD_LANDMARKS,
+            BUILD_CONTRACTION_HIERARCHY,
+            REPLAN,
+            BATCH,
             CHECK_OPTIMISTIC,
             CHECK_CONSISTENT,
         }
@@ -4,23 +4,31 @@ import java.io.IOException;
 import java.util.*;
 import java.util.stream.Stream;
 
-public class StateSpace {
+public class StateSpace implements SearchProblem {
     private final Set<String> states = new TreeSet<>();
     private String initialState = null;
     private Set<String> goalStates = null;
     private final Map<String, Set<Successor>> successors = new HashMap<>();
     private final Map<String, Set<Successor>> predecessors = new HashMap<>();
+    private CompactGraph compactGraph = null;
+    private StateSpaceSnapshot.MappedGraph snapshot = null;
+    private String[] snapshotStateNames = null;
+    private boolean[] unmaterializedStates = null;
+    private int integralCostBound = 0;
 
     private StateSpace() {}
 
     public Set<String> getStates() {
+        materialize();
         return Collections.unmodifiableSet(states);
     }
 
+    @Override
     public String getInitialState() {
         return initialState;
     }
 
+    @Override
     public boolean isGoalState(String state) {
         return goalStates.contains(Objects.requireNonNull(state));
     }
@@ -29,7 +37,12 @@ public class StateSpace {
         return Collections.unmodifiableSet(goalStates);
     }
 
+    @Override
     public Set<Successor> getSuccessors(String state) {
+        if (snapshot != null)
+            return snapshotSuccessors(state);
+
+        materialize();
         Set<Successor> set = successors.get(Objects.requireNonNull(state));
         if (set != null)
             return Collections.unmodifiableSet(set);
@@ -37,7 +50,17 @@ public class StateSpace {
             return Collections.emptySet();
     }
 
+    @Override
+    public boolean hasPredecessors() {
+        return true;
+    }
+
+    @Override
     public Set<Successor> getPredecessors(String state) {
+        if (snapshot != null)
+            return snapshotPredecessors(state);
+
+        materialize();
         Set<Successor> set = predecessors.get(Objects.requireNonNull(state));
         if (set != null)
             return Collections.unmodifiableSet(set);
@@ -45,7 +68,156 @@ public class StateSpace {
             return Collections.emptySet();
     }
 
-    private void addSuccessor(String from, String to, double cost) {
+    @Override
+    public int getIntegralCostBound() {
+        return integralCostBound;
+    }
+
+    public CompactGraph getCompactGraph() {
+        if (compactGraph == null && snapshot != null)
+            compactGraph = snapshot.toCompactGraph(snapshotStateNames);
+        else if (compactGraph == null)
+            finishLoading();
+
+        return compactGraph;
+    }
+
+    public void setTransitionCost(String from, String to, double cost) {
+        checkCost(cost);
+        materialize();
+        if (!removeSuccessor(from, to))
+            throw new NoSuchElementException("Unknown transition " + from + " -> " + to);
+
+        addSuccessor(from, to, cost);
+        if (compactGraph != null)
+            compactGraph.setCost(compactGraph.getStateId(from), compactGraph.getStateId(to), cost);
+    }
+
+    public void addTransition(String from, String to, double cost) {
+        checkCost(cost);
+        materialize();
+        if (successors.containsKey(from) && successors.get(from).contains(new Successor(to, cost)))
+            throw new IllegalStateException("Transition " + from + " -> " + to + " already exists");
+
+        addSuccessor(from, to, cost);
+        states.add(from);
+        compactGraph = null;
+    }
+
+    public void removeTransition(String from, String to) {
+        materialize();
+        if (!removeSuccessor(from, to))
+            throw new NoSuchElementException("Unknown transition " + from + " -> " + to);
+
+        compactGraph = null;
+    }
+
+    public static StateSpace explore(SearchProblem problem) {
+        if (problem instanceof StateSpace)
+            return (StateSpace) problem;
+
+        StateSpace ss = new StateSpace();
+        ss.initialState = problem.getInitialState();
+        ss.goalStates = new HashSet<>();
+
+        Queue<String> open = new ArrayDeque<>();
+        open.add(ss.initialState);
+        ss.states.add(ss.initialState);
+
+        while (!open.isEmpty()) {
+            String state = open.remove();
+            if (problem.isGoalState(state))
+                ss.goalStates.add(state);
+
+            for (Successor successor : problem.getSuccessors(state)) {
+                ss.addSuccessor(state, successor.destination, successor.cost);
+                if (ss.states.add(successor.destination))
+                    open.add(successor.destination);
+            }
+        }
+
+        ss.finishLoading();
+
+        return ss;
+    }
+
+    static StateSpace create(String initialState, Set<String> goalStates) {
+        StateSpace ss = new StateSpace();
+        ss.initialState = Objects.requireNonNull(initialState);
+        ss.goalStates = new HashSet<>(goalStates);
+        return ss;
+    }
+
+    static StateSpace fromSnapshot(StateSpaceSnapshot.MappedGraph graph, String[] stateNames) {
+        StateSpace ss = new StateSpace();
+        ss.initialState = stateNames[graph.initialState];
+        ss.goalStates = new HashSet<>();
+        ss.unmaterializedStates = new boolean[graph.stateCount];
+        for (int id = 0; id < graph.stateCount; id++) {
+            if (graph.isGoalState(id))
+                ss.goalStates.add(stateNames[id]);
+            ss.unmaterializedStates[id] = graph.isDeclaredState(id);
+        }
+
+        ss.snapshot = graph;
+        ss.snapshotStateNames = stateNames;
+        ss.integralCostBound = graph.integralCostBound();
+        return ss;
+    }
+
+    private Set<Successor> snapshotSuccessors(String state) {
+        int id = Arrays.binarySearch(snapshotStateNames, Objects.requireNonNull(state));
+        if (id < 0)
+            return Collections.emptySet();
+
+        Set<Successor> set = new TreeSet<>();
+        for (int e = snapshot.successorStart(id); e < snapshot.successorStart(id + 1); e++)
+            set.add(new Successor(snapshotStateNames[snapshot.successorTarget(e)], snapshot.successorCost(e)));
+
+        return Collections.unmodifiableSet(set);
+    }
+
+    private Set<Successor> snapshotPredecessors(String state) {
+        int id = Arrays.binarySearch(snapshotStateNames, Objects.requireNonNull(state));
+        if (id < 0)
+            return Collections.emptySet();
+
+        Set<Successor> set = new TreeSet<>();
+        for (int e = snapshot.predecessorStart(id); e < snapshot.predecessorStart(id + 1); e++)
+            set.add(new Successor(snapshotStateNames[snapshot.predecessorTarget(e)], snapshot.predecessorCost(e)));
+
+        return Collections.unmodifiableSet(set);
+    }
+
+    private void materialize() {
+        if (snapshot == null)
+            return;
+
+        StateSpaceSnapshot.MappedGraph graph = snapshot;
+        for (int id = 0; id < graph.stateCount; id++) {
+            if (unmaterializedStates[id])
+                states.add(snapshotStateNames[id]);
+
+            for (int e = graph.successorStart(id); e < graph.successorStart(id + 1); e++)
+                addSuccessor(snapshotStateNames[id], snapshotStateNames[graph.successorTarget(e)], graph.successorCost(e));
+        }
+
+        snapshot = null;
+        snapshotStateNames = null;
+        unmaterializedStates = null;
+    }
+
+    void addState(String state) {
+        states.add(state);
+    }
+
+    void finishLoading() {
+        compactGraph = new CompactGraph(this);
+    }
+
+    void addSuccessor(String from, String to, double cost) {
+        integralCostBound = CompactGraph.integralCostBound(integralCostBound, cost);
+
         if (this.successors.containsKey(from)) {
             this.successors.get(from).add(new Successor(to, cost));
         } else {
@@ -63,6 +235,20 @@ public class StateSpace {
         }
     }
 
+    private boolean removeSuccessor(String from, String to) {
+        Set<Successor> successorSet = successors.get(Objects.requireNonNull(from));
+        if (successorSet == null || !successorSet.remove(new Successor(Objects.requireNonNull(to), 0)))
+            return false;
+
+        predecessors.get(to).remove(new Successor(from, 0));
+        return true;
+    }
+
+    private static void checkCost(double cost) {
+        if (!(cost >= 0))
+            throw new IllegalArgumentException("Transition costs must not be negative");
+    }
+
     public static StateSpace read(Stream<String> lines) throws IOException {
         StateSpace ss = new StateSpace();
 
@@ -101,31 +287,126 @@ public class StateSpace {
         return ss;
     }
 
-    public static final class Successor implements Comparable<Successor> {
-        public final String destination;
-        public final double cost;
+    public static final class CompactGraph {
+        private static final int MAX_BUCKETED_COST = 1 << 16;
+
+        public final String[] stateNames;
+        public final int initialState;
+        public final boolean[] goalStates;
+
+        public final int[] successorOffsets;
+        public final int[] successorTargets;
+        public final double[] successorCosts;
 
-        public Successor(String destination, double cost) {
-            this.destination = Objects.requireNonNull(destination);
-            this.cost = cost;
+        public final int[] predecessorOffsets;
+        public final int[] predecessorTargets;
+        public final double[] predecessorCosts;
+
+        private int integralCostBound;
+
+        CompactGraph(String[] stateNames, int initialState, boolean[] goalStates,
+                     int[] successorOffsets, int[] successorTargets, double[] successorCosts,
+                     int[] predecessorOffsets, int[] predecessorTargets, double[] predecessorCosts) {
+            this.stateNames = stateNames;
+            this.initialState = initialState;
+            this.goalStates = goalStates;
+            this.successorOffsets = successorOffsets;
+            this.successorTargets = successorTargets;
+            this.successorCosts = successorCosts;
+            this.predecessorOffsets = predecessorOffsets;
+            this.predecessorTargets = predecessorTargets;
+            this.predecessorCosts = predecessorCosts;
+            this.integralCostBound = integralCostBound(successorCosts);
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Successor successor = (Successor) o;
-            return destination.equals(successor.destination);
+        private CompactGraph(StateSpace ss) {
+            Set<String> names = new TreeSet<>(ss.states);
+            names.add(ss.initialState);
+            names.addAll(ss.goalStates);
+            ss.successors.values().forEach(set -> set.forEach(s -> names.add(s.destination)));
+
+            stateNames = names.toArray(new String[0]);
+            initialState = getStateId(ss.initialState);
+
+            goalStates = new boolean[stateNames.length];
+            for (String goal : ss.goalStates)
+                goalStates[getStateId(goal)] = true;
+
+            successorOffsets = new int[stateNames.length + 1];
+            successorTargets = new int[countEdges(ss.successors)];
+            successorCosts = new double[successorTargets.length];
+            fillAdjacency(ss.successors, successorOffsets, successorTargets, successorCosts);
+
+            predecessorOffsets = new int[stateNames.length + 1];
+            predecessorTargets = new int[countEdges(ss.predecessors)];
+            predecessorCosts = new double[predecessorTargets.length];
+            fillAdjacency(ss.predecessors, predecessorOffsets, predecessorTargets, predecessorCosts);
+
+            integralCostBound = integralCostBound(successorCosts);
+        }
+
+        public int getStateCount() {
+            return stateNames.length;
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(destination);
+        public int getIntegralCostBound() {
+            return integralCostBound;
+        }
+
+        void setCost(int from, int to, double cost) {
+            for (int e = successorOffsets[from]; e < successorOffsets[from + 1]; e++)
+                if (successorTargets[e] == to)
+                    successorCosts[e] = cost;
+            for (int e = predecessorOffsets[to]; e < predecessorOffsets[to + 1]; e++)
+                if (predecessorTargets[e] == from)
+                    predecessorCosts[e] = cost;
+
+            integralCostBound = integralCostBound(integralCostBound, cost);
+        }
+
+        public int getStateId(String state) {
+            int id = Arrays.binarySearch(stateNames, Objects.requireNonNull(state));
+            if (id < 0)
+                throw new NoSuchElementException("Unknown state " + state);
+
+            return id;
         }
 
-        @Override
-        public int compareTo(Successor o) {
-            return destination.compareTo(o.destination);
+        private static int integralCostBound(double[] costs) {
+            int bound = 0;
+            for (int i = 0; i < costs.length && bound != -1; i++)
+                bound = integralCostBound(bound, costs[i]);
+
+            return bound;
+        }
+
+        static int integralCostBound(int bound, double cost) {
+            if (bound == -1 || !(cost >= 0 && cost <= MAX_BUCKETED_COST) || cost != Math.rint(cost))
+                return -1;
+
+            return Math.max(bound, (int) cost);
+        }
+
+        private static int countEdges(Map<String, Set<Successor>> adjacency) {
+            return adjacency.values().stream().mapToInt(Set::size).sum();
+        }
+
+        private void fillAdjacency(Map<String, Set<Successor>> adjacency, int[] offsets, int[] targets, double[] costs) {
+            int edge = 0;
+            for (int id = 0; id < stateNames.length; id++) {
+                offsets[id] = edge;
+
+                Set<Successor> set = adjacency.get(stateNames[id]);
+                if (set == null)
+                    continue;
+
+                for (Successor s : set) {
+                    targets[edge] = getStateId(s.destination);
+                    costs[edge] = s.cost;
+                    edge++;
+                }
+            }
+            offsets[stateNames.length] = edge;
         }
     }
 }
@@ -0,0 +1,298 @@
+package ui;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class StateSpaceSnapshot {
+    private static final int MAGIC = 0x55495353;
+    private static final int VERSION = 1;
+
+    public final StateSpace stateSpace;
+    public final Heuristic heuristic;
+
+    private StateSpaceSnapshot(StateSpace stateSpace, Heuristic heuristic) {
+        this.stateSpace = stateSpace;
+        this.heuristic = heuristic;
+    }
+
+    public static void write(Path path, StateSpace stateSpace, Heuristic heuristic) throws IOException {
+        StateSpace.CompactGraph graph = stateSpace.getCompactGraph();
+        int stateCount = graph.getStateCount();
+
+        byte[][] names = new byte[stateCount][];
+        long nameBytes = 0;
+        for (int id = 0; id < stateCount; id++) {
+            names[id] = graph.stateNames[id].getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[id].length;
+        }
+
+        boolean[] declared = new boolean[stateCount];
+        for (String state : stateSpace.getStates())
+            declared[graph.getStateId(state)] = true;
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(stateCount);
+            out.writeInt(graph.successorTargets.length);
+            out.writeInt(graph.predecessorTargets.length);
+            out.writeInt(graph.initialState);
+            out.writeLong(nameBytes);
+            out.writeBoolean(heuristic != null);
+
+            long nameOffset = 0;
+            for (int id = 0; id < stateCount; id++) {
+                out.writeLong(nameOffset);
+                nameOffset += names[id].length;
+            }
+            out.writeLong(nameOffset);
+            for (byte[] name : names)
+                out.write(name);
+
+            for (int id = 0; id < stateCount; id++)
+                out.writeByte((graph.goalStates[id] ? 1 : 0) | (declared[id] ? 2 : 0));
+
+            writeInts(out, graph.successorOffsets);
+            writeInts(out, graph.successorTargets);
+            writeDoubles(out, graph.successorCosts);
+            writeInts(out, graph.predecessorOffsets);
+            writeInts(out, graph.predecessorTargets);
+            writeDoubles(out, graph.predecessorCosts);
+
+            if (heuristic != null) {
+                for (int id = 0; id < stateCount; id++) {
+                    String state = graph.stateNames[id];
+                    out.writeDouble(heuristic.hasEstimatedCost(state) ? heuristic.getEstimatedCost(state) : Double.NaN);
+                }
+            }
+        }
+    }
+
+    public static StateSpaceSnapshot read(Path path) throws IOException {
+        try (MappedGraph graph = map(path)) {
+            MappedFileReader reader = new MappedFileReader(graph.channel, "state space snapshot");
+            reader.position = graph.nameOffsetsStart;
+            long[] nameOffsets = reader.readLongs(graph.stateCount + 1);
+            String[] stateNames = reader.readNames(nameOffsets, graph.flagsStart - graph.namesStart);
+
+            Heuristic heuristic = null;
+            if (graph.hasHeuristic) {
+                reader.position = graph.heuristicStart;
+                heuristic = Heuristic.fromStateNames(stateNames, reader.readDoubles(graph.stateCount));
+            }
+
+            return new StateSpaceSnapshot(StateSpace.fromSnapshot(graph, stateNames), heuristic);
+        }
+    }
+
+    static MappedGraph map(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedGraph(path, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static final class MappedGraph implements Closeable {
+        private static final int WINDOW_SHIFT = 30;
+        private static final long WINDOW_MASK = (1L << WINDOW_SHIFT) - 1;
+
+        private final FileChannel channel;
+        private final MappedByteBuffer[] windows;
+
+        final int stateCount;
+        final int initialState;
+        private final int successorCount;
+        private final int predecessorCount;
+        private final boolean hasHeuristic;
+        private final long nameOffsetsStart;
+        private final long namesStart;
+        private final long flagsStart;
+        private final long successorOffsetsStart;
+        private final long successorTargetsStart;
+        private final long successorCostsStart;
+        private final long predecessorOffsetsStart;
+        private final long predecessorTargetsStart;
+        private final long predecessorCostsStart;
+        private final long heuristicStart;
+
+        long bytesRead = 0;
+
+        private MappedGraph(Path path, FileChannel channel) throws IOException {
+            this.channel = channel;
+
+            MappedFileReader reader = new MappedFileReader(channel, "state space snapshot");
+            if (reader.readInt() != MAGIC)
+                throw new IOException("Not a state space snapshot: " + path);
+            int version = reader.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported state space snapshot version " + version);
+
+            stateCount = reader.readInt();
+            successorCount = reader.readInt();
+            predecessorCount = reader.readInt();
+            initialState = reader.readInt();
+            long nameBytes = reader.readLong();
+            hasHeuristic = reader.readByte() != 0;
+
+            nameOffsetsStart = reader.position;
+            namesStart = nameOffsetsStart + (long) (stateCount + 1) * Long.BYTES;
+            flagsStart = namesStart + nameBytes;
+            successorOffsetsStart = flagsStart + stateCount;
+            successorTargetsStart = successorOffsetsStart + (long) (stateCount + 1) * Integer.BYTES;
+            successorCostsStart = successorTargetsStart + (long) successorCount * Integer.BYTES;
+            predecessorOffsetsStart = successorCostsStart + (long) successorCount * Double.BYTES;
+            predecessorTargetsStart = predecessorOffsetsStart + (long) (stateCount + 1) * Integer.BYTES;
+            predecessorCostsStart = predecessorTargetsStart + (long) predecessorCount * Integer.BYTES;
+            heuristicStart = predecessorCostsStart + (long) predecessorCount * Double.BYTES;
+
+            long size = channel.size();
+            if (heuristicStart + (hasHeuristic ? (long) stateCount * Double.BYTES : 0) > size)
+                throw new IOException("Truncated state space snapshot");
+
+            windows = new MappedByteBuffer[(int) ((size + WINDOW_MASK) >>> WINDOW_SHIFT)];
+            for (int i = 0; i < windows.length; i++) {
+                long start = (long) i << WINDOW_SHIFT;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(size - start, WINDOW_MASK + 1 + Long.BYTES));
+            }
+        }
+
+        boolean isGoalState(int state) {
+            bytesRead++;
+            return (window(flagsStart + state).get(offset(flagsStart + state)) & 1) != 0;
+        }
+
+        boolean isDeclaredState(int state) {
+            bytesRead++;
+            return (window(flagsStart + state).get(offset(flagsStart + state)) & 2) != 0;
+        }
+
+        int successorStart(int state) {
+            return getInt(successorOffsetsStart + (long) state * Integer.BYTES);
+        }
+
+        int successorTarget(int edge) {
+            return getInt(successorTargetsStart + (long) edge * Integer.BYTES);
+        }
+
+        double successorCost(int edge) {
+            long position = successorCostsStart + (long) edge * Double.BYTES;
+            bytesRead += Double.BYTES;
+            return window(position).getDouble(offset(position));
+        }
+
+        int predecessorStart(int state) {
+            return getInt(predecessorOffsetsStart + (long) state * Integer.BYTES);
+        }
+
+        int predecessorTarget(int edge) {
+            return getInt(predecessorTargetsStart + (long) edge * Integer.BYTES);
+        }
+
+        double predecessorCost(int edge) {
+            long position = predecessorCostsStart + (long) edge * Double.BYTES;
+            bytesRead += Double.BYTES;
+            return window(position).getDouble(offset(position));
+        }
+
+        double minimumCost() {
+            double minimum = Double.POSITIVE_INFINITY;
+            for (int edge = 0; edge < successorCount; edge++)
+                minimum = Math.min(minimum, successorCost(edge));
+
+            return minimum;
+        }
+
+        int integralCostBound() {
+            int bound = 0;
+            for (int edge = 0; edge < successorCount && bound != -1; edge++)
+                bound = StateSpace.CompactGraph.integralCostBound(bound, successorCost(edge));
+
+            return bound;
+        }
+
+        StateSpace.CompactGraph toCompactGraph(String[] stateNames) {
+            boolean[] goalStates = new boolean[stateCount];
+            for (int id = 0; id < stateCount; id++)
+                goalStates[id] = isGoalState(id);
+
+            return new StateSpace.CompactGraph(stateNames, initialState, goalStates,
+                    copyInts(successorOffsetsStart, stateCount + 1), copyInts(successorTargetsStart, successorCount),
+                    copyDoubles(successorCostsStart, successorCount),
+                    copyInts(predecessorOffsetsStart, stateCount + 1), copyInts(predecessorTargetsStart, predecessorCount),
+                    copyDoubles(predecessorCostsStart, predecessorCount));
+        }
+
+        String getStateName(int state) {
+            long position = nameOffsetsStart + (long) state * Long.BYTES;
+            long start = window(position).getLong(offset(position));
+            long end = window(position + Long.BYTES).getLong(offset(position + Long.BYTES));
+
+            byte[] bytes = new byte[(int) (end - start)];
+            for (int i = 0; i < bytes.length; i++)
+                bytes[i] = window(namesStart + start + i).get(offset(namesStart + start + i));
+            bytesRead += 2 * Long.BYTES + bytes.length;
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int getInt(long position) {
+            bytesRead += Integer.BYTES;
+            return window(position).getInt(offset(position));
+        }
+
+        private int[] copyInts(long start, int count) {
+            int[] values = new int[count];
+            for (int i = 0; i < count; i++)
+                values[i] = getInt(start + (long) i * Integer.BYTES);
+
+            return values;
+        }
+
+        private double[] copyDoubles(long start, int count) {
+            double[] values = new double[count];
+            for (int i = 0; i < count; i++) {
+                long position = start + (long) i * Double.BYTES;
+                values[i] = window(position).getDouble(offset(position));
+            }
+            bytesRead += (long) count * Double.BYTES;
+
+            return values;
+        }
+
+        private MappedByteBuffer window(long position) {
+            return windows[(int) (position >>> WINDOW_SHIFT)];
+        }
+
+        private static int offset(long position) {
+            return (int) (position & WINDOW_MASK);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values)
+            out.writeInt(value);
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        for (double value : values)
+            out.writeDouble(value);
+    }
+}
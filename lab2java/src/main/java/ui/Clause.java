@@ -1,10 +1,20 @@
 package ui;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Clause {
-    private final Map<String, Boolean> literals = new HashMap<>();
+    private static final Map<String, Integer> atomIds = new HashMap<>();
+    private static volatile String[] atoms = new String[16];
+
+    private static final int[] NO_WORDS = new int[0];
+    private static final long[] NO_BITS = new long[0];
+
+    private final int[] words;
+    private final long[] positive;
+    private final long[] negative;
+    private final int size;
+    private final long signature;
+    private final int hash;
 
     public final Clause parent1;
     public final Clause parent2;
@@ -14,18 +24,77 @@ public class Clause {
     }
 
     public Clause(Clause parent1, Clause parent2) {
+        this(parent1, parent2, NO_WORDS, NO_BITS, NO_BITS);
+    }
+
+    private Clause(Clause parent1, Clause parent2, int[] words, long[] positive, long[] negative) {
         this.parent1 = parent1;
         this.parent2 = parent2;
+        this.words = words;
+        this.positive = positive;
+        this.negative = negative;
+
+        int size = 0;
+        long signature = 0;
+        int hash = 0;
+        for (int i = 0; i < words.length; i++) {
+            size += Long.bitCount(positive[i]) + Long.bitCount(negative[i]);
+            for (long bits = positive[i]; bits != 0; bits &= bits - 1) {
+                signature |= 1L << literal(words[i], bits, true);
+                hash += atomHash(words[i], bits) ^ Boolean.hashCode(true);
+            }
+            for (long bits = negative[i]; bits != 0; bits &= bits - 1) {
+                signature |= 1L << literal(words[i], bits, false);
+                hash += atomHash(words[i], bits) ^ Boolean.hashCode(false);
+            }
+        }
+        this.size = size;
+        this.signature = signature;
+        this.hash = 31 + hash;
     }
 
     public boolean isNil() {
-        return literals.isEmpty();
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long signature() {
+        return signature;
+    }
+
+    int[] literals() {
+        int[] literals = new int[size];
+        int count = 0;
+
+        for (int i = 0; i < words.length; i++) {
+            for (long bits = positive[i] | negative[i]; bits != 0; bits &= bits - 1) {
+                long bit = Long.lowestOneBit(bits);
+                if ((positive[i] & bit) != 0)
+                    literals[count++] = literal(words[i], bit, true);
+                if ((negative[i] & bit) != 0)
+                    literals[count++] = literal(words[i], bit, false);
+            }
+        }
+
+        return literals;
     }
 
     public boolean subsumes(Clause that) {
-        for (var entry : this.literals.entrySet())
-            if (that.literals.get(entry.getKey()) != entry.getValue())
+        if (size > that.size || (signature & ~that.signature) != 0)
+            return false;
+
+        int j = 0;
+        for (int i = 0; i < words.length; i++) {
+            while (j < that.words.length && that.words[j] < words[i])
+                j++;
+            if (j == that.words.length || that.words[j] != words[i])
+                return false;
+            if ((positive[i] & ~that.positive[j] | negative[i] & ~that.negative[j]) != 0)
                 return false;
+        }
 
         return true;
     }
@@ -33,44 +102,67 @@ public class Clause {
     public Set<Clause> inverse() {
         Set<Clause> clauses = new HashSet<>();
 
-        for (var entry : literals.entrySet()) {
-            Clause clause = new Clause();
-            clause.literals.put(entry.getKey(), !entry.getValue());
-            clauses.add(clause);
+        for (int i = 0; i < words.length; i++) {
+            for (long bits = positive[i]; bits != 0; bits &= bits - 1)
+                clauses.add(new Clause(null, null, new int[]{words[i]}, new long[1], new long[]{Long.lowestOneBit(bits)}));
+            for (long bits = negative[i]; bits != 0; bits &= bits - 1)
+                clauses.add(new Clause(null, null, new int[]{words[i]}, new long[]{Long.lowestOneBit(bits)}, new long[1]));
         }
 
         return clauses;
     }
 
     public static Clause resolve(Clause a, Clause b) {
-        Clause result = new Clause(a, b);
-
-        result.literals.putAll(a.literals);
-
-        boolean resolved = false;
-        for (var bEntry : b.literals.entrySet()) {
-            Boolean aValue = result.literals.get(bEntry.getKey());
-
-            if (aValue == null) {
-                result.literals.put(bEntry.getKey(), bEntry.getValue());
-                continue;
+        int capacity = a.words.length + b.words.length;
+        int[] words = new int[capacity];
+        long[] positive = new long[capacity];
+        long[] negative = new long[capacity];
+        int count = 0;
+        int complementary = 0;
+
+        int i = 0;
+        int j = 0;
+        while (i < a.words.length || j < b.words.length) {
+            int word;
+            long positiveBits;
+            long negativeBits;
+
+            if (j == b.words.length || i < a.words.length && a.words[i] < b.words[j]) {
+                word = a.words[i];
+                positiveBits = a.positive[i];
+                negativeBits = a.negative[i++];
+            } else if (i == a.words.length || b.words[j] < a.words[i]) {
+                word = b.words[j];
+                positiveBits = b.positive[j];
+                negativeBits = b.negative[j++];
+            } else {
+                long clashes = a.positive[i] & b.negative[j] | a.negative[i] & b.positive[j];
+                complementary += Long.bitCount(clashes);
+                if (complementary > 1)
+                    return null;
+
+                word = a.words[i];
+                positiveBits = (a.positive[i++] | b.positive[j]) & ~clashes;
+                negativeBits = (a.negative[i - 1] | b.negative[j++]) & ~clashes;
+                if ((positiveBits | negativeBits) == 0)
+                    continue;
             }
 
-            if (aValue.equals(bEntry.getValue()))
-                continue;
-
-            if (resolved)
-                return null;
-
-            result.literals.remove(bEntry.getKey());
-            resolved = true;
+            words[count] = word;
+            positive[count] = positiveBits;
+            negative[count] = negativeBits;
+            count++;
         }
 
-        return resolved ? result : null;
+        if (complementary != 1)
+            return null;
+
+        return new Clause(a, b, Arrays.copyOf(words, count), Arrays.copyOf(positive, count),
+                Arrays.copyOf(negative, count));
     }
 
     public static Clause parse(String string) {
-        Clause clause = new Clause();
+        SortedMap<Integer, long[]> bits = new TreeMap<>();
 
         String[] split = string.toLowerCase().split("\\s");
         for (int i = 0; i < split.length; i++) {
@@ -82,15 +174,51 @@ public class Clause {
             }
 
             boolean value = !split[i].startsWith("~");
-            String atom = value ? split[i] : split[i].substring(1);
+            int atom = atomId(value ? split[i] : split[i].substring(1));
 
-            Boolean prevValue = clause.literals.put(atom, value);
-            if (prevValue != null && prevValue != value)
+            long[] word = bits.computeIfAbsent(atom >>> 6, w -> new long[2]);
+            word[value ? 0 : 1] |= 1L << atom;
+            if ((word[0] & word[1]) != 0)
                 return null;
         }
 
+        int[] words = new int[bits.size()];
+        long[] positive = new long[bits.size()];
+        long[] negative = new long[bits.size()];
+        int count = 0;
+        for (var entry : bits.entrySet()) {
+            words[count] = entry.getKey();
+            positive[count] = entry.getValue()[0];
+            negative[count] = entry.getValue()[1];
+            count++;
+        }
+
+        return new Clause(null, null, words, positive, negative);
+    }
 
-        return clause;
+    private static synchronized int atomId(String atom) {
+        Integer known = atomIds.get(atom);
+        if (known != null)
+            return known;
+
+        int id = atomIds.size();
+        String[] names = id == atoms.length ? Arrays.copyOf(atoms, id * 2) : atoms;
+        names[id] = atom;
+        atoms = names;
+        atomIds.put(atom, id);
+        return id;
+    }
+
+    private static String atomName(int atom) {
+        return atoms[atom];
+    }
+
+    private static int literal(int word, long bits, boolean positive) {
+        return (word << 6 | Long.numberOfTrailingZeros(bits)) << 1 | (positive ? 0 : 1);
+    }
+
+    private static int atomHash(int word, long bits) {
+        return atomName(word << 6 | Long.numberOfTrailingZeros(bits)).hashCode();
     }
 
     @Override
@@ -98,12 +226,13 @@ public class Clause {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Clause clause = (Clause) o;
-        return literals.equals(clause.literals);
+        return hash == clause.hash && Arrays.equals(words, clause.words) &&
+                Arrays.equals(positive, clause.positive) && Arrays.equals(negative, clause.negative);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(literals);
+        return hash;
     }
 
     @Override
@@ -111,9 +240,14 @@ public class Clause {
         if (isNil())
             return "NIL";
 
-        return literals.entrySet()
-                       .stream()
-                       .map(entry -> (entry.getValue() ? "" : "~") + entry.getKey())
-                       .collect(Collectors.joining(" v "));
+        StringJoiner joiner = new StringJoiner(" v ");
+        for (int i = 0; i < words.length; i++) {
+            for (long bits = positive[i] | negative[i]; bits != 0; bits &= bits - 1) {
+                long bit = Long.lowestOneBit(bits);
+                joiner.add(((positive[i] & bit) != 0 ? "" : "~") + atomName(words[i] << 6 | Long.numberOfTrailingZeros(bit)));
+            }
+        }
+
+        return joiner.toString();
     }
 }
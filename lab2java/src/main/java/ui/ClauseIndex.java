@@ -0,0 +1,105 @@
+package ui;
+
+import java.util.*;
+
+class ClauseIndex {
+    private final List<Set<Clause>> occurrences = new ArrayList<>();
+    private final List<Set<Clause>> keyed = new ArrayList<>();
+    private final Set<Clause> empty = new HashSet<>();
+
+    public void add(Clause clause) {
+        int[] literals = clause.literals();
+        if (literals.length == 0) {
+            empty.add(clause);
+            return;
+        }
+
+        for (int literal : literals)
+            bucket(occurrences, literal).add(clause);
+        bucket(keyed, literals[0]).add(clause);
+    }
+
+    public void remove(Clause clause) {
+        int[] literals = clause.literals();
+        if (literals.length == 0) {
+            empty.remove(clause);
+            return;
+        }
+
+        for (int literal : literals)
+            bucket(occurrences, literal).remove(clause);
+        bucket(keyed, literals[0]).remove(clause);
+    }
+
+    public boolean contains(Clause clause) {
+        int[] literals = clause.literals();
+        if (literals.length == 0)
+            return empty.contains(clause);
+
+        return lookup(keyed, literals[0]).contains(clause);
+    }
+
+    public boolean isSubsumed(Clause clause) {
+        if (!empty.isEmpty())
+            return true;
+
+        for (int literal : clause.literals())
+            for (Clause candidate : lookup(keyed, literal))
+                if (candidate.subsumes(clause))
+                    return true;
+
+        return false;
+    }
+
+    public List<Clause> subsumedBy(Clause clause) {
+        List<Clause> subsumed = new ArrayList<>();
+        int[] literals = clause.literals();
+
+        Set<Clause> candidates = null;
+        for (int literal : literals) {
+            Set<Clause> bucket = lookup(occurrences, literal);
+            if (candidates == null || bucket.size() < candidates.size())
+                candidates = bucket;
+        }
+
+        if (candidates == null) {
+            for (Set<Clause> bucket : keyed)
+                subsumed.addAll(bucket);
+            subsumed.addAll(empty);
+            subsumed.remove(clause);
+            return subsumed;
+        }
+
+        for (Clause candidate : candidates)
+            if (candidate != clause && clause.subsumes(candidate))
+                subsumed.add(candidate);
+
+        return subsumed;
+    }
+
+    public List<Clause> resolvableWith(Clause clause) {
+        Map<Clause, Boolean> clashes = new LinkedHashMap<>();
+
+        for (int literal : clause.literals())
+            for (Clause candidate : lookup(occurrences, literal ^ 1))
+                clashes.merge(candidate, true, (first, second) -> false);
+
+        List<Clause> resolvable = new ArrayList<>();
+        for (Map.Entry<Clause, Boolean> entry : clashes.entrySet())
+            if (entry.getValue())
+                resolvable.add(entry.getKey());
+
+        return resolvable;
+    }
+
+    private static Set<Clause> bucket(List<Set<Clause>> buckets, int literal) {
+        while (buckets.size() <= literal)
+            buckets.add(new LinkedHashSet<>());
+
+        return buckets.get(literal);
+    }
+
+    private static Set<Clause> lookup(List<Set<Clause>> buckets, int literal) {
+        return literal < buckets.size() ? buckets.get(literal) : Set.of();
+    }
+}
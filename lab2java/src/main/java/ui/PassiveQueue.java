@@ -0,0 +1,76 @@
+package ui;
+
+import java.util.*;
+
+class PassiveQueue {
+    private static final int AGE_PICK_INTERVAL = 5;
+
+    private final PriorityQueue<Entry> queue;
+    private final PriorityQueue<Entry> ageQueue;
+    private final Map<Clause, Entry> entries = new HashMap<>();
+    private long age = 0;
+    private long picks = 0;
+
+    public PassiveQueue(SelectionStrategy strategy) {
+        queue = new PriorityQueue<>(strategy.order);
+        ageQueue = strategy == SelectionStrategy.RATIO
+                ? new PriorityQueue<>(SelectionStrategy.FIFO.order)
+                : null;
+    }
+
+    public void add(Clause clause, int distance) {
+        Entry entry = new Entry(clause, age++, distance);
+        entries.put(clause, entry);
+        queue.add(entry);
+        if (ageQueue != null)
+            ageQueue.add(entry);
+    }
+
+    public void remove(Clause clause) {
+        Entry entry = entries.remove(clause);
+        if (entry != null)
+            entry.deleted = true;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public Entry poll() {
+        PriorityQueue<Entry> source = ageQueue != null && picks++ % AGE_PICK_INTERVAL == 0 ? ageQueue : queue;
+
+        Entry entry;
+        do {
+            entry = source.poll();
+        } while (entry.deleted);
+
+        entry.deleted = true;
+        entries.remove(entry.clause);
+        return entry;
+    }
+
+    static final class Entry {
+        final Clause clause;
+        private final long age;
+        private final int distance;
+        private boolean deleted = false;
+
+        private Entry(Clause clause, long age, int distance) {
+            this.clause = clause;
+            this.age = age;
+            this.distance = distance;
+        }
+
+        long age() {
+            return age;
+        }
+
+        int length() {
+            return clause.size();
+        }
+
+        int distance() {
+            return distance;
+        }
+    }
+}
@@ -1,30 +1,53 @@
 package ui;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
 
 public class RefutationResolver {
+    private static final int CLAUSES_PER_CHUNK = 256;
+
     static Clause resolution(Collection<Clause> inputClauses, Clause goal) {
+        return resolution(inputClauses, goal, SelectionStrategy.FIFO, 1);
+    }
+
+    static Clause resolution(Collection<Clause> inputClauses, Clause goal, SelectionStrategy strategy,
+                             int threadCount) {
         if (goal == null)
             return new Clause();
 
+        ForkJoinPool pool = threadCount > 1 ? new ForkJoinPool(threadCount) : null;
+        try {
+            return resolution(inputClauses, goal, strategy, pool);
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+        }
+    }
+
+    private static Clause resolution(Collection<Clause> inputClauses, Clause goal, SelectionStrategy strategy,
+                                     ForkJoinPool pool) {
         Set<Clause> goalInverse = goal.inverse();
 
-        Set<Clause> clauses = nonReduntant(inputClauses);
-        clauses.addAll(goalInverse);
+        ClauseIndex index = new ClauseIndex();
+        for (Clause clause : nonReduntant(inputClauses))
+            index.add(clause);
+        for (Clause clause : goalInverse)
+            index.add(clause);
 
         Set<Clause> opened = new HashSet<>(goalInverse);
-        Queue<Clause> open = new LinkedList<>(goalInverse);
+        PassiveQueue passive = new PassiveQueue(strategy);
+        for (Clause clause : goalInverse)
+            passive.add(clause, 0);
 
-        while (!open.isEmpty()) {
-            Clause clause1 = open.poll();
+        while (!passive.isEmpty()) {
+            PassiveQueue.Entry given = passive.poll();
+            Clause clause1 = given.clause;
 
             Set<Clause> newClauses = new HashSet<>();
 
-            for (Clause clause2 : clauses) {
-                if (clause1 == clause2)
-                    continue;
-
-                Clause newClause = Clause.resolve(clause1, clause2);
+            List<Clause> partners = index.resolvableWith(clause1);
+            for (Clause newClause : map(pool, partners, clause2 -> Clause.resolve(clause1, clause2))) {
                 if (newClause == null)
                     continue;
                 if (newClause.isNil())
@@ -34,48 +57,85 @@ public class RefutationResolver {
                     newClauses.add(newClause);
             }
 
-            for (Clause newClause : newClauses) {
-                boolean isSubsumed = false;
-
-                for (Iterator<Clause> existingIt = clauses.iterator(); existingIt.hasNext(); ) {
-                    Clause existing = existingIt.next();
+            List<Clause> candidates = new ArrayList<>(newClauses);
+            List<List<Clause>> subsumed = map(pool, candidates,
+                    newClause -> index.isSubsumed(newClause) ? null : index.subsumedBy(newClause));
 
-                    if (existing.subsumes(newClause)) {
-                        isSubsumed = true;
-                        break;
-                    }
+            ClauseIndex added = new ClauseIndex();
+            for (int i = 0; i < candidates.size(); i++) {
+                Clause newClause = candidates.get(i);
+                if (subsumed.get(i) == null || added.isSubsumed(newClause))
+                    continue;
 
-                    if (newClause.subsumes(existing)) {
-                        existingIt.remove();
-                        open.removeIf(c -> c == existing);
+                for (Clause existing : subsumed.get(i)) {
+                    if (index.contains(existing)) {
+                        index.remove(existing);
+                        passive.remove(existing);
                     }
                 }
-
-                if (!isSubsumed) {
-                    clauses.add(newClause);
-                    open.add(newClause);
+                for (Clause existing : added.subsumedBy(newClause)) {
+                    added.remove(existing);
+                    index.remove(existing);
+                    passive.remove(existing);
                 }
+
+                added.add(newClause);
+                index.add(newClause);
+                passive.add(newClause, given.distance() + 1);
             }
         }
 
         return null;
     }
 
+    private static <T, R> List<R> map(ForkJoinPool pool, List<T> items, Function<T, R> function) {
+        List<R> results = new ArrayList<>(items.size());
+
+        if (pool == null || items.size() <= CLAUSES_PER_CHUNK) {
+            for (T item : items)
+                results.add(function.apply(item));
+            return results;
+        }
+
+        List<Callable<List<R>>> tasks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += CLAUSES_PER_CHUNK) {
+            List<T> chunk = items.subList(start, Math.min(start + CLAUSES_PER_CHUNK, items.size()));
+            tasks.add(() -> {
+                List<R> chunkResults = new ArrayList<>(chunk.size());
+                for (T item : chunk)
+                    chunkResults.add(function.apply(item));
+                return chunkResults;
+            });
+        }
+
+        try {
+            for (Future<List<R>> future : pool.invokeAll(tasks))
+                results.addAll(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Resolution was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+
+        return results;
+    }
+
     private static Set<Clause> nonReduntant(Collection<Clause> input) {
-        Set<Clause> output = new HashSet<>();
+        List<Clause> sorted = new ArrayList<>(input);
+        sorted.sort(Comparator.comparingInt(Clause::size));
 
-        for (Clause a : input) {
-            boolean isSubsumed = false;
+        ClauseIndex index = new ClauseIndex();
+        Set<Clause> output = new LinkedHashSet<>();
 
-            for (Clause b : input) {
-                if (a != b && b.subsumes(a)) {
-                    isSubsumed = true;
-                    break;
-                }
-            }
+        for (Clause clause : sorted) {
+            if (index.isSubsumed(clause))
+                continue;
 
-            if (!isSubsumed)
-                output.add(a);
+            index.add(clause);
+            output.add(clause);
         }
 
         return output;
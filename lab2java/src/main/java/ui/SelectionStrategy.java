@@ -0,0 +1,28 @@
+package ui;
+
+import java.util.Comparator;
+
+public enum SelectionStrategy {
+    FIFO(Comparator.comparingLong(PassiveQueue.Entry::age)),
+    LENGTH(Comparator.comparingInt(PassiveQueue.Entry::length)
+                     .thenComparingLong(PassiveQueue.Entry::age)),
+    UNIT(Comparator.comparing((PassiveQueue.Entry entry) -> entry.length() > 1)
+                   .thenComparingLong(PassiveQueue.Entry::age)),
+    RATIO(LENGTH.order),
+    SUPPORT(Comparator.comparingInt(PassiveQueue.Entry::distance)
+                      .thenComparingLong(PassiveQueue.Entry::age));
+
+    final Comparator<PassiveQueue.Entry> order;
+
+    SelectionStrategy(Comparator<PassiveQueue.Entry> order) {
+        this.order = order;
+    }
+
+    public static SelectionStrategy parse(String name) {
+        for (SelectionStrategy strategy : values())
+            if (strategy.name().equalsIgnoreCase(name))
+                return strategy;
+
+        throw new IllegalArgumentException("Unknown strategy " + name);
+    }
+}
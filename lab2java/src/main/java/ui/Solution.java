@@ -8,12 +8,19 @@ import java.util.stream.Collectors;
 
 public class Solution {
     public static void main(String... args) {
-        String mode = args[0];
+        List<String> arguments = new ArrayList<>(List.of(args));
+        SelectionStrategy strategy = SelectionStrategy.parse(option(arguments, "--strategy", "strategy", "fifo"));
+
+        int threadCount = Integer.parseInt(option(arguments, "--threads", "count", "1"));
+        if (threadCount < 1)
+            throw new IllegalArgumentException("--threads must be at least 1");
+
+        String mode = arguments.get(0);
 
         try {
             switch (mode) {
-                case "resolution" -> resolution(args[1]);
-                case "cooking" -> cooking(args[1], args[2]);
+                case "resolution" -> resolution(arguments.get(1), strategy, threadCount);
+                case "cooking" -> cooking(arguments.get(1), arguments.get(2), strategy, threadCount);
                 default -> throw new IllegalArgumentException("Unknown mode " + mode);
             }
         } catch (IOException e) {
@@ -22,7 +29,20 @@ public class Solution {
         }
     }
 
-    private static void resolution(String clauseFile) throws IOException {
+    private static String option(List<String> arguments, String name, String value, String defaultValue) {
+        int index = arguments.indexOf(name);
+        if (index == -1)
+            return defaultValue;
+        if (index + 1 == arguments.size())
+            throw new IllegalArgumentException(name + " specified with no " + value);
+
+        String result = arguments.remove(index + 1);
+        arguments.remove(index);
+        return result;
+    }
+
+    private static void resolution(String clauseFile, SelectionStrategy strategy, int threadCount)
+            throws IOException {
         List<String> lines = Files.lines(Path.of(clauseFile))
                                   .filter(line -> !line.startsWith("#"))
                                   .collect(Collectors.toList());
@@ -35,7 +55,7 @@ public class Solution {
                                     .collect(Collectors.toList());
         Clause goal = Clause.parse(goalText);
 
-        Clause result = RefutationResolver.resolution(clauses, goal);
+        Clause result = RefutationResolver.resolution(clauses, goal, strategy, threadCount);
 
         if (result != null)
             printClauseTrace(result, clauses, goal);
@@ -47,7 +67,8 @@ public class Solution {
             System.out.println("true");
     }
 
-    private static void cooking(String clauseFile, String commandFile) throws IOException {
+    private static void cooking(String clauseFile, String commandFile, SelectionStrategy strategy, int threadCount)
+            throws IOException {
         Set<Clause> clauses = Files.lines(Path.of(clauseFile))
                                    .filter(line -> !line.startsWith("#"))
                                    .map(Clause::parse)
@@ -67,7 +88,7 @@ public class Solution {
                      }
                      case '-' -> clauses.remove(clause);
                      case '?' -> {
-                         Clause result = RefutationResolver.resolution(clauses, clause);
+                         Clause result = RefutationResolver.resolution(clauses, clause, strategy, threadCount);
 
                          System.out.println();
                          if (result != null)